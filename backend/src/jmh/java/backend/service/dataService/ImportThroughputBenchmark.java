@@ -0,0 +1,247 @@
+package backend.service.dataService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import backend.BackendApplication;
+import backend.frontendModels.ImportStatusForUI;
+
+/**
+ * End-to-end import throughput: generates synthetic fund histories as XLSX,
+ * CSV and gzip CSV, then imports each file with every ingestion mode through
+ * {@link FundDataImportService} against a real PostgreSQL database, and
+ * prints rows/s, allocation and peak heap per run.
+ * <p>
+ * Every run starts its own application context on a clean slate: synthetic
+ * funds (codes starting with SYN) and everything attached to them are deleted
+ * first, so each run inserts all rows. Run through the benchmark profile:
+ *
+ * <pre>
+ * createdb fonfon_benchmark
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=backend.service.dataService.ImportThroughputBenchmark \
+ *     -Dbenchmark.args="--funds=500 --days=500 --formats=xlsx,csv.gz --modes=BATCH,COPY"
+ * </pre>
+ *
+ * Options: --funds, --days, --formats (xlsx, csv, csv.gz), --modes (BATCH,
+ * COPY), --dir for the generated files and --min-rows-per-second, which makes
+ * the run exit with status 1 if any result is slower. Every other --key=value
+ * is passed on to Spring, e.g. --spring.datasource.url=...
+ */
+public class ImportThroughputBenchmark {
+
+	private static final long SEED = 42;
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		options.put("funds", "200");
+		options.put("days", "250");
+		options.put("formats", "xlsx,csv,csv.gz");
+		options.put("modes", "BATCH,COPY");
+		options.put("dir", System.getProperty("java.io.tmpdir"));
+
+		// Defaults for the application, anything given on the command line wins
+		Map<String, String> springProperties = new LinkedHashMap<>();
+		springProperties.put("spring.datasource.url", "jdbc:postgresql://localhost:5432/fonfon_benchmark");
+		// The security configuration needs a web context, a random port keeps it
+		// out of the way of a running backend
+		springProperties.put("server.port", "0");
+		springProperties.put("logging.level.root", "WARN");
+		springProperties.put("logging.level.org.hibernate", "ERROR");
+		springProperties.put("logging.level.org.springframework.security", "WARN");
+		springProperties.put("app.data.import.enabled", "false");
+		springProperties.put("app.data.import.incremental", "false");
+		springProperties.put("app.data.import.resume", "false");
+
+		for (String arg : args) {
+			if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+				throw new IllegalArgumentException("Expected --key=value, got " + arg);
+			}
+			String key = arg.substring(2, arg.indexOf('='));
+			String value = arg.substring(arg.indexOf('=') + 1);
+			if (options.containsKey(key) || key.equals("min-rows-per-second")) {
+				options.put(key, value);
+			} else {
+				springProperties.put(key, value);
+			}
+		}
+
+		int funds = Integer.parseInt(options.get("funds"));
+		int days = Integer.parseInt(options.get("days"));
+		SyntheticFundData data = new SyntheticFundData(funds, days, SEED);
+		Path dir = Files.createDirectories(Path.of(options.get("dir"), "fonfon-synthetic"));
+
+		List<Result> results = new ArrayList<>();
+		for (String format : options.get("formats").split(",")) {
+			Path file = dir.resolve("funds-" + funds + "x" + days + "." + format.trim());
+			long t0 = System.currentTimeMillis();
+			if (file.toString().endsWith(".xlsx")) {
+				data.writeXlsx(file);
+			} else {
+				data.writeCsv(file);
+			}
+			System.out.println("BENCHMARK: generated " + file + " (" + data.getRowCount() + " rows, "
+					+ Files.size(file) / 1024 + " KB) in " + (System.currentTimeMillis() - t0) + " ms");
+
+			for (String mode : options.get("modes").split(",")) {
+				Map<String, String> properties = new LinkedHashMap<>(springProperties);
+				properties.put("app.data.import.mode", mode.trim());
+				properties.put("app.data.import.sources", "INVESTMENT=file:" + file.toAbsolutePath());
+				results.add(run(format.trim(), mode.trim(), properties));
+			}
+		}
+
+		System.out.println();
+		System.out.println(String.format("%-8s %-6s %10s %10s %12s %12s %12s %10s", "format", "mode", "rows",
+				"ms", "rows/s", "alloc MB/s", "alloc B/row", "peak MB"));
+		for (Result r : results) {
+			System.out.println(String.format("%-8s %-6s %10d %10d %12.0f %12.1f %12d %10d", r.format, r.mode,
+					r.rows, r.elapsedMs, r.rowsPerSecond(), r.allocatedMbPerSecond(), r.allocatedBytesPerRow(),
+					r.peakHeapBytes / (1024 * 1024)));
+		}
+
+		String min = options.get("min-rows-per-second");
+		if (min != null) {
+			for (Result r : results) {
+				if (r.rowsPerSecond() < Double.parseDouble(min)) {
+					System.out.println("BENCHMARK: " + r.format + "/" + r.mode + " below " + min + " rows/s");
+					System.exit(1);
+				}
+			}
+		}
+	}
+
+	private static Result run(String format, String mode, Map<String, String> properties) throws Exception {
+		List<String> args = new ArrayList<>();
+		properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+				.logStartupInfo(false).run(args.toArray(new String[0]))) {
+			removeSyntheticFunds(context.getBean(JdbcTemplate.class));
+			FundDataImportService importService = context.getBean(FundDataImportService.class);
+
+			System.gc();
+			MemorySampler sampler = new MemorySampler();
+			sampler.start();
+
+			importService.importConfiguredSources();
+
+			sampler.interrupt();
+			sampler.join();
+
+			ImportStatusForUI status = importService.getImportStatus();
+			Result result = new Result(format, mode, status.getRowsWritten(), status.getElapsedMs(),
+					sampler.allocatedBytes(), sampler.peakHeap);
+			System.out.println("BENCHMARK: " + format + "/" + mode + " rows=" + result.rows + " in "
+					+ result.elapsedMs + " ms");
+			return result;
+		}
+	}
+
+	private static void removeSyntheticFunds(JdbcTemplate jdbcTemplate) {
+		String synthetic = "SELECT id FROM funds WHERE code LIKE '" + SyntheticFundData.CODE_PREFIX + "%'";
+		jdbcTemplate.update("DELETE FROM fund_import_watermarks WHERE fund_id IN (" + synthetic + ")");
+		jdbcTemplate.update("DELETE FROM fund_latest_price WHERE fund_id IN (" + synthetic + ")");
+		jdbcTemplate.update("DELETE FROM fund_statistics WHERE fund_id IN (" + synthetic + ")");
+		jdbcTemplate.update("DELETE FROM fund_price_history WHERE fund_id IN (" + synthetic + ")");
+		jdbcTemplate.update("DELETE FROM funds WHERE code LIKE '" + SyntheticFundData.CODE_PREFIX + "%'");
+		jdbcTemplate.update("DELETE FROM import_checkpoints WHERE source LIKE '%fonfon-synthetic%'");
+	}
+
+	/**
+	 * Polls the used heap and the bytes allocated by every thread while an
+	 * import runs. Both are lower bounds: heap spikes between two polls are
+	 * missed, and so is what a pool thread allocates after its last poll.
+	 */
+	private static final class MemorySampler extends Thread {
+
+		private static final long INTERVAL_MS = 10;
+
+		private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		// Allocation counters per thread id, at the start and at the last poll
+		private final Map<Long, Long> before = new HashMap<>();
+		private final Map<Long, Long> latest = new HashMap<>();
+		private volatile long peakHeap;
+
+		MemorySampler() {
+			super("memory-sampler");
+			setDaemon(true);
+			poll(before);
+		}
+
+		@Override
+		public void run() {
+			while (!isInterrupted()) {
+				poll(latest);
+				try {
+					Thread.sleep(INTERVAL_MS);
+				} catch (InterruptedException e) {
+					break;
+				}
+			}
+			poll(latest);
+		}
+
+		long allocatedBytes() {
+			long total = 0;
+			for (Map.Entry<Long, Long> entry : latest.entrySet()) {
+				total += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+			}
+			return total;
+		}
+
+		private void poll(Map<Long, Long> into) {
+			peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+			long[] ids = threads.getAllThreadIds();
+			long[] allocated = threads.getThreadAllocatedBytes(ids);
+			for (int i = 0; i < ids.length; i++) {
+				if (allocated[i] >= 0) {
+					into.put(ids[i], allocated[i]);
+				}
+			}
+		}
+	}
+
+	private static final class Result {
+
+		final String format;
+		final String mode;
+		final long rows;
+		final long elapsedMs;
+		final long allocatedBytes;
+		final long peakHeapBytes;
+
+		Result(String format, String mode, long rows, long elapsedMs, long allocatedBytes, long peakHeapBytes) {
+			this.format = format;
+			this.mode = mode;
+			this.rows = rows;
+			this.elapsedMs = elapsedMs;
+			this.allocatedBytes = allocatedBytes;
+			this.peakHeapBytes = peakHeapBytes;
+		}
+
+		double rowsPerSecond() {
+			return elapsedMs > 0 ? rows * 1000.0 / elapsedMs : 0;
+		}
+
+		double allocatedMbPerSecond() {
+			return elapsedMs > 0 ? allocatedBytes / (1024.0 * 1024.0) * 1000.0 / elapsedMs : 0;
+		}
+
+		long allocatedBytesPerRow() {
+			return rows > 0 ? allocatedBytes / rows : 0;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package backend.service.dataService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Generates price histories for N funds over M weekdays and writes them in
+ * the layout of the TEFAS "Tarihsel Veriler" export: a title row, a header row,
+ * then date, code, name, price, circulating units, investor count and total
+ * value, one block of funds per date. The same seed always gives the same
+ * data.
+ */
+public class SyntheticFundData {
+
+	// Real TEFAS codes are three letters, these can never clash with them
+	public static final String CODE_PREFIX = "SYN";
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 2);
+	// Excel sheets hold 1,048,576 rows, longer histories continue on a new sheet
+	private static final int ROWS_PER_SHEET = 1_000_000;
+	private static final String[] HEADERS = { "Tarih", "Fon Kodu", "Fon Adı", "Fiyat", "Tedavüldeki Pay Sayısı",
+			"Kişi Sayısı", "Fon Toplam Değer" };
+
+	private final int funds;
+	private final int days;
+	private final long seed;
+
+	public SyntheticFundData(int funds, int days, long seed) {
+		this.funds = funds;
+		this.days = days;
+		this.seed = seed;
+	}
+
+	public long getRowCount() {
+		return (long) funds * days;
+	}
+
+	public Path writeXlsx(Path file) throws IOException {
+		SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+		try (OutputStream out = Files.newOutputStream(file)) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy"));
+
+			Sheet[] sheet = { null };
+			int[] rowNum = { 0 };
+			generate(p -> {
+				if (sheet[0] == null || rowNum[0] >= ROWS_PER_SHEET) {
+					sheet[0] = workbook.createSheet("Sheet" + (workbook.getNumberOfSheets() + 1));
+					sheet[0].createRow(0).createCell(0).setCellValue("Takasbank TEFAS | Tarihsel Veriler");
+					Row header = sheet[0].createRow(1);
+					for (int c = 0; c < HEADERS.length; c++) {
+						header.createCell(c).setCellValue(HEADERS[c]);
+					}
+					rowNum[0] = 2;
+				}
+				Row row = sheet[0].createRow(rowNum[0]++);
+				row.createCell(0).setCellValue(p.date);
+				row.getCell(0).setCellStyle(dateStyle);
+				row.createCell(1).setCellValue(p.code);
+				row.createCell(2).setCellValue(p.name);
+				row.createCell(3).setCellValue(p.price);
+				row.createCell(4).setCellValue(p.units);
+				row.createCell(5).setCellValue(p.investors);
+				row.createCell(6).setCellValue(p.totalValue);
+			});
+			workbook.write(out);
+		} finally {
+			workbook.dispose();
+			workbook.close();
+		}
+		return file;
+	}
+
+	/**
+	 * Comma separated, '.' decimals and ISO dates, gzip-compressed when the
+	 * file name ends with .gz.
+	 */
+	public Path writeCsv(Path file) throws IOException {
+		OutputStream out = Files.newOutputStream(file);
+		if (file.getFileName().toString().endsWith(".gz")) {
+			out = new GZIPOutputStream(out, 64 * 1024);
+		}
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+			writer.write(String.join(",", HEADERS));
+			writer.write('\n');
+			IOException[] failure = { null };
+			generate(p -> {
+				if (failure[0] != null) {
+					return;
+				}
+				try {
+					writer.write(p.date.toString());
+					writer.write(',');
+					writer.write(p.code);
+					writer.write(',');
+					writer.write(p.name);
+					writer.write(',');
+					writer.write(BigDecimal.valueOf(Math.round(p.price * 1_000_000), 6).toPlainString());
+					writer.write(',');
+					writer.write(Long.toString(Math.round(p.units)));
+					writer.write(',');
+					writer.write(Integer.toString(p.investors));
+					writer.write(',');
+					writer.write(BigDecimal.valueOf(Math.round(p.totalValue * 100), 2).toPlainString());
+					writer.write('\n');
+				} catch (IOException e) {
+					failure[0] = e;
+				}
+			});
+			if (failure[0] != null) {
+				throw failure[0];
+			}
+		}
+		return file;
+	}
+
+	private void generate(Consumer<Price> out) {
+		Random random = new Random(seed);
+		double[] prices = new double[funds];
+		double[] units = new double[funds];
+		int[] investors = new int[funds];
+		List<String> codes = new ArrayList<>(funds);
+		List<String> names = new ArrayList<>(funds);
+		for (int f = 0; f < funds; f++) {
+			prices[f] = 1 + random.nextDouble() * 50;
+			units[f] = 1_000_000 + random.nextInt(500_000_000);
+			investors[f] = 100 + random.nextInt(100_000);
+			codes.add(String.format("%s%05d", CODE_PREFIX, f));
+			names.add("SENTETİK FON " + codes.get(f));
+		}
+
+		Price p = new Price();
+		LocalDate date = FIRST_DAY;
+		for (int d = 0; d < days; d++) {
+			while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+				date = date.plusDays(1);
+			}
+			for (int f = 0; f < funds; f++) {
+				prices[f] = Math.max(0.01, prices[f] * (1 + random.nextGaussian() * 0.01));
+				units[f] = Math.max(1_000, units[f] * (1 + random.nextGaussian() * 0.002));
+				investors[f] = Math.max(1, investors[f] + random.nextInt(21) - 10);
+
+				p.date = date;
+				p.code = codes.get(f);
+				p.name = names.get(f);
+				p.price = prices[f];
+				p.units = Math.rint(units[f]);
+				p.investors = investors[f];
+				p.totalValue = p.price * p.units;
+				out.accept(p);
+			}
+			date = date.plusDays(1);
+		}
+	}
+
+	// Reused for every generated row
+	private static final class Price {
+		LocalDate date;
+		String code;
+		String name;
+		double price;
+		double units;
+		int investors;
+		double totalValue;
+	}
+}
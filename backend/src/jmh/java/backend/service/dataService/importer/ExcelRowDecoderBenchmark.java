@@ -0,0 +1,117 @@
+package backend.service.dataService.importer;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import com.github.pjfanning.xlsx.StreamingReader;
+
+/**
+ * Decodes every row of FundData.xlsx with the old cell helpers and with
+ * {@link ExcelRowDecoder}. The workbook is read into memory once, so only cell
+ * decoding is measured, not unzipping and XML parsing. Run with -prof gc to
+ * see the allocation per row; see the benchmark profile in pom.xml.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcelRowDecoderBenchmark {
+
+	// Any Spring resource location, e.g. file:/data/export.xlsx
+	private static final String WORKBOOK = System.getProperty("benchmark.workbook", "classpath:FundData.xlsx");
+
+	private Workbook workbook;
+	private List<Row> rows;
+
+	@Setup(Level.Trial)
+	public void loadRows() throws Exception {
+		InputStream is = new DefaultResourceLoader().getResource(WORKBOOK).getInputStream();
+		workbook = StreamingReader.builder().rowCacheSize(100).bufferSize(4096).open(is);
+		rows = new ArrayList<>();
+		for (Sheet sheet : workbook) {
+			for (Row row : sheet) {
+				if (row.getRowNum() > 0) {
+					rows.add(row);
+				}
+			}
+		}
+		checkSameResults();
+	}
+
+	@TearDown(Level.Trial)
+	public void close() throws Exception {
+		workbook.close();
+	}
+
+	@Benchmark
+	public void legacyHelpers(Blackhole bh) {
+		LegacyRowParser parser = new LegacyRowParser();
+		for (Row row : rows) {
+			bh.consume(parser.parseRow(row));
+		}
+	}
+
+	@Benchmark
+	public void rowDecoder(Blackhole bh) {
+		ExcelRowDecoder decoder = new ExcelRowDecoder();
+		for (Row row : rows) {
+			bh.consume(decoder.decode(row));
+		}
+	}
+
+	// Both parsers have to agree before their speed is worth comparing
+	private void checkSameResults() {
+		LegacyRowParser parser = new LegacyRowParser();
+		ExcelRowDecoder decoder = new ExcelRowDecoder();
+		int decoded = 0;
+		for (Row row : rows) {
+			FundPriceRow expected = parser.parseRow(row);
+			FundPriceRow actual = decoder.decode(row);
+			if (expected == null || actual == null) {
+				if (expected != actual) {
+					throw new IllegalStateException("Parsers disagree on skipping row " + row.getRowNum());
+				}
+				continue;
+			}
+			if (!expected.getFundCode().equals(actual.getFundCode()) || !expected.getDate().equals(actual.getDate())
+					|| !sameValue(expected.getPrice(), actual.getPrice(), 6)
+					|| !sameValue(expected.getCirculatingUnits(), actual.getCirculatingUnits(), 2)
+					|| !Objects.equals(expected.getInvestorCount(), actual.getInvestorCount())
+					|| !sameValue(expected.getTotalValue(), actual.getTotalValue(), 2)) {
+				throw new IllegalStateException("Parsers disagree on row " + row.getRowNum());
+			}
+			decoded++;
+		}
+		System.out.println("BENCHMARK: " + rows.size() + " rows, " + decoded + " decoded identically");
+	}
+
+	// Compared at the column scale, which is what ends up in the database
+	private static boolean sameValue(BigDecimal legacy, BigDecimal decoded, int scale) {
+		return legacy.setScale(scale, RoundingMode.HALF_UP).compareTo(decoded) == 0;
+	}
+}
@@ -0,0 +1,86 @@
+package backend.service.dataService.importer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * The row parsing ExcelFundPriceReader used before {@link ExcelRowDecoder},
+ * kept unchanged as the benchmark baseline.
+ */
+class LegacyRowParser {
+
+	FundPriceRow parseRow(Row row) {
+		// --- A. Read Basic Info ---
+		String code = getStringValue(row.getCell(1));
+		String name = getStringValue(row.getCell(2));
+
+		if (code == null || code.trim().isEmpty() || code.equals("Fon Kodu")) {
+			return null;
+		}
+
+		// --- B. Read Historical Data ---
+		Date excelDate = null;
+		try {
+			excelDate = row.getCell(0).getDateCellValue();
+		} catch (Exception e) {
+			return null;
+		} // Skip if date is invalid
+
+		if (excelDate == null) {
+			return null;
+		}
+
+		LocalDate localDate = excelDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+
+		BigDecimal price = getBigDecimalValue(row.getCell(3)); // Fiyat
+		BigDecimal units = getBigDecimalValue(row.getCell(4)); // Tedavüldeki Pay Sayısı
+		Integer investors = getIntegerValue(row.getCell(5)); // Kişi Sayısı
+		BigDecimal totalVal = getBigDecimalValue(row.getCell(6)); // Fon Toplam Değer
+
+		return new FundPriceRow(code, name, localDate, price, units, investors, totalVal);
+	}
+
+	// --- Helper Methods ---
+
+	private String getStringValue(Cell cell) {
+		if (cell == null)
+			return "";
+		if (cell.getCellType() == CellType.STRING)
+			return cell.getStringCellValue();
+		if (cell.getCellType() == CellType.NUMERIC)
+			return String.valueOf(cell.getNumericCellValue());
+		return "";
+	}
+
+	private BigDecimal getBigDecimalValue(Cell cell) {
+		if (cell == null)
+			return BigDecimal.ZERO;
+		if (cell.getCellType() == CellType.NUMERIC)
+			return BigDecimal.valueOf(cell.getNumericCellValue());
+		try {
+			if (cell.getCellType() == CellType.STRING)
+				return new BigDecimal(cell.getStringCellValue().trim());
+		} catch (Exception e) {
+		}
+		return BigDecimal.ZERO;
+	}
+
+	private Integer getIntegerValue(Cell cell) {
+		if (cell == null)
+			return 0;
+		if (cell.getCellType() == CellType.NUMERIC)
+			return (int) cell.getNumericCellValue();
+		try {
+			if (cell.getCellType() == CellType.STRING)
+				return Integer.parseInt(cell.getStringCellValue().trim().replace(".", ""));
+		} catch (Exception e) {
+		}
+		return 0;
+	}
+}
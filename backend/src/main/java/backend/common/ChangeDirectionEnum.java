@@ -0,0 +1,7 @@
+package backend.common;
+
+public enum ChangeDirectionEnum {
+
+	GAINERS, LOSERS
+
+}
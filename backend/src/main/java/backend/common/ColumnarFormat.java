@@ -0,0 +1,26 @@
+package backend.common;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Opt-in for the columnar shape of time series responses (parallel arrays
+ * instead of one object per day): either format=columnar or an Accept header
+ * naming {@link #MEDIA_TYPE}.
+ */
+public final class ColumnarFormat {
+
+	public static final String MEDIA_TYPE = "application/vnd.fonfon.columnar+json";
+
+	private ColumnarFormat() {
+	}
+
+	public static boolean requested(String format, String accept) {
+		return "columnar".equalsIgnoreCase(format) || (accept != null && accept.contains(MEDIA_TYPE));
+	}
+
+	/** The vendor type if the client asked for it by Accept, plain JSON otherwise. */
+	public static MediaType contentType(String accept) {
+		return accept != null && accept.contains(MEDIA_TYPE) ? MediaType.parseMediaType(MEDIA_TYPE)
+				: MediaType.APPLICATION_JSON;
+	}
+}
@@ -0,0 +1,9 @@
+package backend.common;
+
+public enum PricingModeEnum {
+
+	// Only the holdings priced on a day count towards it, or each holding at its
+	// last price on or before the day
+	EXACT, AS_OF
+
+}
@@ -0,0 +1,8 @@
+package backend.common;
+
+public enum SeriesResolutionEnum {
+
+	// Every point, the last point of each ISO week, the last point of each month
+	DAILY, WEEKLY, MONTHLY
+
+}
@@ -0,0 +1,28 @@
+package backend.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import backend.frontendModels.CacheStatsForUI;
+import backend.service.dataService.FundQueryCaches;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheAdminController {
+
+	@Autowired
+	private FundQueryCaches fundQueryCaches;
+
+	// GET /api/admin/cache/stats
+	// entries, fund rows held, hits / misses and evictions of every FundService
+	// result cache
+	@GetMapping("/stats")
+	public ResponseEntity<List<CacheStatsForUI>> getCacheStats() {
+		return ResponseEntity.ok(fundQueryCaches.getStats());
+	}
+}
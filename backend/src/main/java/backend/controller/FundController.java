@@ -1,29 +1,64 @@
 package backend.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import backend.common.ChangeDirectionEnum;
+import backend.common.ColumnarFormat;
+import backend.common.FundTypeEnum;
+import backend.common.SeriesResolutionEnum;
 import backend.frontendModels.FundForUI;
+import backend.frontendModels.FundHistoryColumnsForUI;
+import backend.frontendModels.FundHistoryPageForUI;
+import backend.frontendModels.FundPricePointForUI;
+import backend.frontendModels.FundReturnPointForUI;
+import backend.frontendModels.FundSearchResultForUI;
+import backend.frontendModels.FundStatisticsForUI;
+import backend.frontendModels.FundStatisticsPageForUI;
+import backend.frontendModels.FundSuggestionForUI;
 import backend.frontendModels.RequestModels.FundSearchRequest;
+import backend.frontendModels.RequestModels.FundStatisticsRequest;
 import backend.service.dataService.FundService;
+import backend.service.dataService.FundStatisticsService;
 
 @RestController
 @RequestMapping("/api")
 public class FundController {
 
+	private static final String NDJSON = "application/x-ndjson";
+	private static final int STREAM_FLUSH_LINES = 500;
+
 	@Autowired
 	private FundService fundService;
 
+	@Autowired
+	private FundStatisticsService fundStatisticsService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	@GetMapping("/funds")
 	public ResponseEntity<List<FundForUI>> getAllFunds() {
 		List<FundForUI> funds = fundService.getAllFundsForUI();
@@ -39,16 +74,77 @@ public class FundController {
 		return ResponseEntity.ok(funds);
 	}
 
+	// GET /api/funds/AAV/history?startDate=2020-01-01&endDate=2025-11-19
+	// optional: &resolution=WEEKLY (DAILY, WEEKLY, MONTHLY) &maxPoints=300
+	// &format=columnar (or Accept: application/vnd.fonfon.columnar+json) answers
+	// with FundHistoryColumnsForUI instead of a list of FundForUI
 	@GetMapping("/funds/{code}/history")
-	public ResponseEntity<List<FundForUI>> getFundHistoryByCode(@PathVariable("code") String code,
+	public ResponseEntity<?> getFundHistoryByCode(@PathVariable("code") String code,
 			@RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+			@RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(value = "resolution", required = false) SeriesResolutionEnum resolution,
+			@RequestParam(value = "maxPoints", required = false) Integer maxPoints,
+			@RequestParam(value = "format", required = false) String format,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+		if (ColumnarFormat.requested(format, accept)) {
+			FundHistoryColumnsForUI columns = fundService.getFundHistoryColumns(code, startDate, endDate, resolution,
+					maxPoints);
+			return ResponseEntity.ok().contentType(ColumnarFormat.contentType(accept)).header(HttpHeaders.VARY,
+					HttpHeaders.ACCEPT).body(columns);
+		}
 
-		List<FundForUI> funds = fundService.getFundForUIByCodeAndOptionalDateRange(code, startDate, endDate);
+		List<FundForUI> funds = fundService.getFundForUIByCodeAndOptionalDateRange(code, startDate, endDate,
+				resolution, maxPoints);
 
 		return ResponseEntity.ok(funds);
 	}
 
+	// GET /api/funds/AAV/history/page?limit=500, then &after=<nextCursor> until
+	// nextCursor is null; startDate / endDate optionally bound the range
+	@GetMapping("/funds/{code}/history/page")
+	public ResponseEntity<FundHistoryPageForUI> getFundHistoryPage(@PathVariable("code") String code,
+			@RequestParam(value = "after", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+			@RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(value = "limit", defaultValue = "500") int limit) {
+
+		FundHistoryPageForUI page = fundService.getFundHistoryPage(code, after, startDate, endDate, limit);
+		return ResponseEntity.ok(page);
+	}
+
+	// GET /api/funds/AAV/history/stream -> one FundPricePointForUI JSON object per
+	// line (NDJSON), written while the prices are read
+	@GetMapping(value = "/funds/{code}/history/stream", produces = NDJSON)
+	public ResponseEntity<StreamingResponseBody> streamFundHistory(@PathVariable("code") String code,
+			@RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+		fundService.requireFund(code);
+
+		ObjectWriter writer = objectMapper.writerFor(FundPricePointForUI.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).withRootValueSeparator("\n");
+		StreamingResponseBody body = out -> {
+			try (JsonGenerator generator = writer.createGenerator(out)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				AtomicInteger written = new AtomicInteger();
+				fundService.streamFundHistory(code, startDate, endDate, point -> {
+					try {
+						writer.writeValue(generator, point);
+						// The first line goes out right away, later ones in chunks
+						if (written.getAndIncrement() % STREAM_FLUSH_LINES == 0) {
+							generator.flush();
+						}
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				generator.writeRaw('\n');
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+	}
+
 	// GET /api/funds/latest-by-price?minPrice=1.5&maxPrice=3.2
 	@GetMapping("/funds/latest-by-price")
 	public ResponseEntity<List<FundForUI>> getFundsByLatestPriceInRange(@RequestParam("minPrice") BigDecimal minPrice,
@@ -59,17 +155,56 @@ public class FundController {
 	}
 
 	// GET /api/funds/top-changers?startDate=2025-11-17&endDate=2025-11-19
+	// optional: &limit=10&direction=LOSERS&type=PENSION
 	@GetMapping("/funds/top-changers")
 	public ResponseEntity<List<FundForUI>> getTopChangers(
 			@RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-		List<FundForUI> funds = fundService.getTop5FundsByChange(startDate, endDate);
+			@RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(value = "limit", defaultValue = "5") int limit,
+			@RequestParam(value = "direction", defaultValue = "GAINERS") ChangeDirectionEnum direction,
+			@RequestParam(value = "type", required = false) FundTypeEnum type) {
+		List<FundForUI> funds = fundService.getTopFundsByChange(startDate, endDate, limit, direction, type);
 		return ResponseEntity.ok(funds);
 	}
 
+	// GET /api/funds/search?name=hisse&minInvestors=1000&sort=totalValue&direction=desc&page=0&size=50
 	@GetMapping("/funds/search")
-	public ResponseEntity<List<FundForUI>> searchFunds(FundSearchRequest request) {
-		List<FundForUI> funds = fundService.search(request);
-		return ResponseEntity.ok(funds);
+	public ResponseEntity<FundSearchResultForUI> searchFunds(FundSearchRequest request) {
+		FundSearchResultForUI result = fundService.search(request);
+		return ResponseEntity.ok(result);
+	}
+
+	// GET /api/funds/typeahead?q=is portfoy&limit=10
+	// codes and names matched ignoring case and Turkish letters, best first
+	@GetMapping("/funds/typeahead")
+	public ResponseEntity<List<FundSuggestionForUI>> typeahead(@RequestParam("q") String query,
+			@RequestParam(value = "limit", defaultValue = "10") int limit) {
+		List<FundSuggestionForUI> suggestions = fundService.suggestFunds(query, limit);
+		return ResponseEntity.ok(suggestions);
+	}
+
+	// GET /api/funds/statistics?type=INVESTMENT&minReturn1y=20&maxVolatility1y=30&sort=return1y&direction=desc
+	// trailing returns, volatility and max drawdown of every fund, in percent
+	@GetMapping("/funds/statistics")
+	public ResponseEntity<FundStatisticsPageForUI> screenFundStatistics(FundStatisticsRequest request) {
+		FundStatisticsPageForUI result = fundStatisticsService.screen(request);
+		return ResponseEntity.ok(result);
+	}
+
+	// GET /api/funds/AAK/statistics
+	@GetMapping("/funds/{code}/statistics")
+	public ResponseEntity<FundStatisticsForUI> getFundStatistics(@PathVariable("code") String code) {
+		FundStatisticsForUI statistics = fundStatisticsService.getFundStatistics(code);
+		return ResponseEntity.ok(statistics);
+	}
+
+	// GET /api/funds/AAK/returns?startDate=2025-01-01&endDate=2025-06-30
+	// daily log returns, both dates optional
+	@GetMapping("/funds/{code}/returns")
+	public ResponseEntity<List<FundReturnPointForUI>> getFundReturns(@PathVariable("code") String code,
+			@RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		List<FundReturnPointForUI> returns = fundStatisticsService.getDailyReturns(code, startDate, endDate);
+		return ResponseEntity.ok(returns);
 	}
 }
@@ -0,0 +1,49 @@
+package backend.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import backend.service.dataService.FundDataVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Conditional GETs for the public /api/funds endpoints. Their responses only
+ * change when an import commits, so the ETag is the {@link FundDataVersion}
+ * combined with the request URL and Accept header, and Last-Modified is the
+ * time of the latest import. A matching If-None-Match / If-Modified-Since is
+ * answered with 304 here, before the controller or FundService run.
+ */
+@Component
+public class FundHttpCacheInterceptor implements HandlerInterceptor {
+
+	private final FundDataVersion dataVersion;
+
+	// How long browsers and CDNs may reuse a response without revalidating it
+	@Value("${app.http.funds-max-age-seconds:60}")
+	private long maxAgeSeconds;
+
+	public FundHttpCacheInterceptor(FundDataVersion dataVersion) {
+		this.dataVersion = dataVersion;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		String method = request.getMethod();
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return true;
+		}
+
+		FundDataVersion.Version version = dataVersion.current();
+		String url = request.getRequestURI() + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+		String variant = url + "|" + request.getHeader(HttpHeaders.ACCEPT);
+		String etag = "\"" + version.tag() + "-" + Integer.toHexString(variant.hashCode()) + "\"";
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAgeSeconds + ", must-revalidate");
+		// Sets ETag and Last-Modified, and the 304 status when they match
+		return !new ServletWebRequest(request, response).checkNotModified(etag, version.lastModified());
+	}
+}
@@ -0,0 +1,26 @@
+package backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import backend.frontendModels.ImportStatusForUI;
+import backend.service.dataService.FundDataImportService;
+
+@RestController
+@RequestMapping("/api/admin/import")
+public class ImportAdminController {
+
+	@Autowired
+	private FundDataImportService importService;
+
+	// GET /api/admin/import/status
+	// rows parsed / inserted / duplicates, rows per second and ETA of the
+	// current (or last) import job
+	@GetMapping("/status")
+	public ResponseEntity<ImportStatusForUI> getImportStatus() {
+		return ResponseEntity.ok(importService.getImportStatus());
+	}
+}
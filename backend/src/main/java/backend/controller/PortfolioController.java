@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,12 +14,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import backend.common.ColumnarFormat;
 import backend.common.CurrentUser;
+import backend.common.PricingModeEnum;
+import backend.common.SeriesResolutionEnum;
 import backend.frontendModels.PortfolioForUI;
+import backend.frontendModels.PortfolioValuesColumnsForUI;
 import backend.frontendModels.PortfolioValuesResponseForUI;
 import backend.frontendModels.RequestModels.CreatePortfolioRequest;
 import backend.service.dataService.PortfolioService;
@@ -68,13 +74,28 @@ public class PortfolioController {
 
 	// Get values of a portfolio over a date range
 	// /user/{userId}/{portfolioId}/values?startDate=2025-11-17&endDate=2025-11-19
+	// optional: &resolution=MONTHLY (DAILY, WEEKLY, MONTHLY) &maxPoints=300
+	// &pricing=AS_OF carries each fund's last price over days it has none (default EXACT)
+	// &format=columnar (or Accept: application/vnd.fonfon.columnar+json) answers
+	// with PortfolioValuesColumnsForUI
 	@GetMapping("/user/me/{portfolioId}/values")
-	public ResponseEntity<PortfolioValuesResponseForUI> getPortfolioValuesOverDate(@PathVariable Long portfolioId,
+	public ResponseEntity<?> getPortfolioValuesOverDate(@PathVariable Long portfolioId,
 			@RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+			@RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(value = "resolution", required = false) SeriesResolutionEnum resolution,
+			@RequestParam(value = "maxPoints", required = false) Integer maxPoints,
+			@RequestParam(value = "pricing", defaultValue = "EXACT") PricingModeEnum pricing,
+			@RequestParam(value = "format", required = false) String format,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
 		Long userId = CurrentUser.id();
+		if (ColumnarFormat.requested(format, accept)) {
+			PortfolioValuesColumnsForUI columns = portfolioService.getPortfolioValueColumnsOverDateRange(userId,
+					portfolioId, startDate, endDate, resolution, maxPoints, pricing);
+			return ResponseEntity.ok().contentType(ColumnarFormat.contentType(accept)).header(HttpHeaders.VARY,
+					HttpHeaders.ACCEPT).body(columns);
+		}
 		PortfolioValuesResponseForUI response = portfolioService.getPortfolioValuesOverDateRange(userId, portfolioId,
-				startDate, endDate);
+				startDate, endDate, resolution, maxPoints, pricing);
 		return ResponseEntity.ok(response);
 	}
 
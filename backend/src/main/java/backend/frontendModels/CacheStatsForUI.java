@@ -0,0 +1,16 @@
+package backend.frontendModels;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsForUI {
+
+	private String name;
+	private long entries;
+	// Fund rows held, the unit of the cache's size bound
+	private long weight;
+	private long hits;
+	private long misses;
+	private double hitRate;
+	private long evictions;
+}
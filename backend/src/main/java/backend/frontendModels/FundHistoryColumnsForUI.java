@@ -0,0 +1,21 @@
+package backend.frontendModels;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Data;
+
+// Columnar form of a fund's history: fund metadata once, then one array per
+// field, entry i of every array belongs to dates[i]
+@Data
+public class FundHistoryColumnsForUI {
+
+	private String code;
+	private String name;
+	private String type;
+	private LocalDate[] dates;
+	private BigDecimal[] prices;
+	private BigDecimal[] circulatingUnits;
+	private Integer[] investorCounts;
+	private BigDecimal[] totalValues;
+}
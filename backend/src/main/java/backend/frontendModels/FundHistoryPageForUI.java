@@ -0,0 +1,17 @@
+package backend.frontendModels;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class FundHistoryPageForUI {
+
+	private String code;
+	private String name;
+	private String type;
+	private List<FundPricePointForUI> prices;
+	// Pass as "after" for the next page, null on the last page
+	private LocalDate nextCursor;
+}
@@ -0,0 +1,17 @@
+package backend.frontendModels;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Data;
+
+// One day of a fund's history, without the fund's code / name / type
+@Data
+public class FundPricePointForUI {
+
+	private LocalDate date;
+	private BigDecimal price;
+	private BigDecimal circulatingUnits;
+	private Integer investorCount;
+	private BigDecimal totalValue;
+}
@@ -0,0 +1,13 @@
+package backend.frontendModels;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+
+// ln(price / previous price) of one trading day, null on the fund's first day
+@Data
+public class FundReturnPointForUI {
+
+	private LocalDate date;
+	private Double logReturn;
+}
@@ -0,0 +1,15 @@
+package backend.frontendModels;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class FundSearchResultForUI {
+
+	private List<FundForUI> funds;
+	private int page;
+	private int size;
+	private long totalElements;
+	private int totalPages;
+}
@@ -0,0 +1,23 @@
+package backend.frontendModels;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+
+// Trailing statistics as of the fund's latest price, in percent
+@Data
+public class FundStatisticsForUI {
+
+	private String code;
+	private String name;
+	private String type;
+	private LocalDate asOfDate;
+	private Double return1w;
+	private Double return1m;
+	private Double return3m;
+	private Double return1y;
+	private Double returnYtd;
+	private Double volatility1m;
+	private Double volatility1y;
+	private Double maxDrawdown1y;
+}
@@ -0,0 +1,13 @@
+package backend.frontendModels;
+
+import lombok.Data;
+
+// One typeahead match, best matches have the highest score
+@Data
+public class FundSuggestionForUI {
+
+	private String code;
+	private String name;
+	private String type;
+	private double score;
+}
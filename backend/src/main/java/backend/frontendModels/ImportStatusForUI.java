@@ -0,0 +1,29 @@
+package backend.frontendModels;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ImportStatusForUI {
+
+	private String state; // IDLE, RUNNING, SUCCEEDED, FAILED
+	private List<String> sources;
+	private Instant startedAt;
+	private Instant finishedAt;
+	private long elapsedMs;
+
+	private long rowsParsed;
+	private long rowsSkipped; // already loaded according to the fund watermarks
+	private long rowsWritten;
+	private long rowsInserted;
+	private long duplicates;
+	private long fundsCreated;
+	private long batches;
+
+	private double rowsPerSecond;
+	private Long expectedRows; // null until the sources have been imported once
+	private Long etaSeconds;
+	private String error;
+}
@@ -24,6 +24,7 @@ public class PortfolioForUI {
 		private String fundName;
 		private BigDecimal allocationPercent;
 		private BigDecimal ownedUnits;
+		private LocalDate priceDate; // date of the price ownedUnits were bought at
 		private BigDecimal currentValue; // ownedUnits * latestPrice
 	}
 }
\ No newline at end of file
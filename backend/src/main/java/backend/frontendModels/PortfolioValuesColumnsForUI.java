@@ -0,0 +1,17 @@
+package backend.frontendModels;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Data;
+
+// Columnar form of PortfolioValuesResponseForUI, totalValues[i] is the value
+// on dates[i]
+@Data
+public class PortfolioValuesColumnsForUI {
+
+	private LocalDate[] dates;
+	private BigDecimal[] totalValues;
+	private List<FundChangeSummaryForUI> fundChanges;
+}
@@ -19,4 +19,12 @@ public class FundSearchRequest {
 
 	private Long minInvestors;
 	private Long maxInvestors;
-}
\ No newline at end of file
+
+	// code, name, date, price, totalValue, circulatingUnits or investorCount
+	private String sort = "code";
+	// asc or desc
+	private String direction = "asc";
+
+	private int page = 0;
+	private int size = 50;
+}
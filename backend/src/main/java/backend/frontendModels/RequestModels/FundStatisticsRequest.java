@@ -0,0 +1,45 @@
+package backend.frontendModels.RequestModels;
+
+import backend.common.FundTypeEnum;
+import lombok.Data;
+
+// Ranges are in percent, like the statistics themselves
+@Data
+public class FundStatisticsRequest {
+	private FundTypeEnum type;
+
+	private Double minReturn1w;
+	private Double maxReturn1w;
+
+	private Double minReturn1m;
+	private Double maxReturn1m;
+
+	private Double minReturn3m;
+	private Double maxReturn3m;
+
+	private Double minReturn1y;
+	private Double maxReturn1y;
+
+	private Double minReturnYtd;
+	private Double maxReturnYtd;
+
+	private Double minVolatility1m;
+	private Double maxVolatility1m;
+
+	private Double minVolatility1y;
+	private Double maxVolatility1y;
+
+	// Drawdowns are zero or negative, e.g. minMaxDrawdown1y=-10 keeps funds
+	// that never fell more than 10%
+	private Double minMaxDrawdown1y;
+	private Double maxMaxDrawdown1y;
+
+	// code, name, return1w, return1m, return3m, return1y, returnYtd,
+	// volatility1m, volatility1y or maxDrawdown1y
+	private String sort = "return1y";
+	// asc or desc
+	private String direction = "desc";
+
+	private int page = 0;
+	private int size = 50;
+}
@@ -1,188 +1,234 @@
 package backend.service.dataService;
 
-import java.io.InputStream;
-import java.math.BigDecimal;
-import java.time.ZoneId;
-import java.util.Date;
-
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
-import com.github.pjfanning.xlsx.StreamingReader;
-
-import backend.service.dataService.entity.Fund;
-import backend.service.dataService.entity.FundPrice;
+import backend.common.FundTypeEnum;
+import backend.frontendModels.ImportStatusForUI;
 import backend.service.dataService.entity.FundType;
-import backend.service.dataService.repository.FundPriceRepository;
-import backend.service.dataService.repository.FundRepository;
+import backend.service.dataService.entity.ImportCheckpoint;
+import backend.service.dataService.importer.BatchResult;
+import backend.service.dataService.importer.FundImportPipeline;
+import backend.service.dataService.importer.ImportJobMetrics;
+import backend.service.dataService.importer.ImportListener;
+import backend.service.dataService.importer.ImportSource;
 import backend.service.dataService.repository.FundTypeRepository;
+import backend.service.dataService.repository.ImportCheckpointRepository;
+import jakarta.annotation.PreDestroy;
 
 @Service
-public class FundDataImportService {
+public class FundDataImportService implements ImportListener {
 
 	@Value("${app.data.import.file-path}")
 	private Resource excelFile;
 
+	// Comma separated TYPE=location pairs, e.g.
+	// INVESTMENT=classpath:FundData.xlsx,PENSION=file:/data/pension.xlsx
+	@Value("${app.data.import.sources:}")
+	private String sourcesProperty;
+
 	@Autowired
-	private FundRepository fundRepository;
+	private ResourceLoader resourceLoader;
 
 	@Autowired
 	private FundTypeRepository fundTypeRepository;
 
 	@Autowired
-	private FundPriceRepository fundPriceRepository;
+	private FundImportPipeline pipeline;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private ImportCheckpointRepository importCheckpointRepository;
+
+	private final ImportJobMetrics metrics = new ImportJobMetrics();
+
+	// One import at a time, off the startup / request threads
+	private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "import-job");
+		t.setDaemon(true);
+		return t;
+	});
+
+	/**
+	 * Starts importing the configured sources on the background job thread.
+	 *
+	 * @return false if an import is already running
+	 */
+	public synchronized boolean startImportInBackground() {
+		if (metrics.getState() == ImportJobMetrics.State.RUNNING) {
+			return false;
+		}
+		// Marked as running right away so a second call cannot slip in
+		metrics.start(List.of(), null);
+		jobExecutor.submit(() -> {
+			try {
+				importConfiguredSources();
+				System.out.println("Funds imported successfully!");
+			} catch (Throwable t) {
+				// Errors too: nothing else on the job thread would report them
+				System.out.println("CRITICAL FAILURE in Background Thread!");
+				System.out.println("Error type: " + t.getClass().getName());
+				System.out.println("Message: " + t.getMessage());
+				t.printStackTrace();
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Imports every source listed in app.data.import.sources, or only
+	 * app.data.import.file-path as INVESTMENT funds when no list is configured.
+	 * Runs on the calling thread.
+	 */
+	public void importConfiguredSources() throws Exception {
+		try {
+			importSources(parseSources());
+			metrics.succeed();
+			publishImported(true);
+		} catch (Throwable t) {
+			metrics.fail(t);
+			// Batches committed before the failure stay, readers must see them
+			publishImported(false);
+			throw t;
+		}
+	}
 
-	int processed = 0, insertedFunds = 0, insertedPrices = 0;
+	private void publishImported(boolean succeeded) {
+		if (metrics.getRowsInserted() > 0 || metrics.getFundsCreated() > 0) {
+			eventPublisher.publishEvent(
+					new FundPricesImportedEvent(metrics.getRowsInserted(), metrics.getFundsCreated(), succeeded));
+		}
+	}
 
-	public void importFundsFromExcel(String fundTypeName) throws Exception {
-		processed = 0;
-		insertedFunds = 0;
-		insertedPrices = 0;
+	public ImportStatusForUI getImportStatus() {
+		ImportStatusForUI dto = new ImportStatusForUI();
+		dto.setState(metrics.getState().name());
+		dto.setSources(metrics.getSources());
+		dto.setStartedAt(metrics.getStartedAt());
+		dto.setFinishedAt(metrics.getFinishedAt());
+		dto.setElapsedMs(metrics.getElapsedMillis());
+		dto.setRowsParsed(metrics.getRowsParsed());
+		dto.setRowsSkipped(metrics.getRowsSkipped());
+		dto.setRowsWritten(metrics.getRowsWritten());
+		dto.setRowsInserted(metrics.getRowsInserted());
+		dto.setDuplicates(metrics.getDuplicates());
+		dto.setFundsCreated(metrics.getFundsCreated());
+		dto.setBatches(metrics.getBatches());
+		dto.setRowsPerSecond(Math.round(metrics.getRowsPerSecond() * 10) / 10.0);
+		dto.setExpectedRows(metrics.getExpectedRows());
+		dto.setEtaSeconds(metrics.getEtaSeconds());
+		dto.setError(metrics.getError());
+		return dto;
+	}
 
-		// 1. Find the Fund Type (e.g., "INVESTMENT")
-		FundType type = fundTypeRepository.findByName(fundTypeName).orElseGet(() -> {
+	@PreDestroy
+	public void shutdown() {
+		jobExecutor.shutdownNow();
+	}
+
+	private void importSources(List<Map.Entry<FundTypeEnum, Resource>> configured) throws Exception {
+		// 1. Find the Fund Types (e.g., "INVESTMENT") once per type
+		Map<FundTypeEnum, FundType> types = new EnumMap<>(FundTypeEnum.class);
+		List<ImportSource> sources = new ArrayList<>();
+		for (Map.Entry<FundTypeEnum, Resource> entry : configured) {
+			FundType type = types.computeIfAbsent(entry.getKey(), t -> findOrCreateType(t.getName()));
+			Resource file = entry.getValue();
+			System.out.println("Import file " + file.getFilename() + " exists? " + file.exists() + " | " + file);
+			sources.add(new ImportSource(file, entry.getKey(), type.getId()));
+		}
+
+		// The ETA assumes every source commits as many rows as its last completed
+		// run, read before this run resets the checkpoints
+		List<String> names = new ArrayList<>();
+		Long expectedRows = 0L;
+		for (ImportSource source : sources) {
+			names.add(source.toString());
+			Long last = importCheckpointRepository.findBySource(source.getResource().getDescription())
+					.filter(cp -> ImportCheckpoint.COMPLETED.equals(cp.getStatus()))
+					.map(ImportCheckpoint::getRowsCommitted).orElse(null);
+			expectedRows = (expectedRows != null && last != null) ? expectedRows + last : null;
+		}
+		metrics.start(names, expectedRows);
+
+		pipeline.run(sources, this);
+
+		System.out.println("processedRows=" + metrics.getRowsWritten() + " skippedRows=" + metrics.getRowsSkipped()
+				+ " insertedFunds=" + metrics.getFundsCreated() + " insertedPrices=" + metrics.getRowsInserted() + " duplicatePrices=" + metrics.getDuplicates()
+				+ " batches=" + metrics.getBatches() + " in " + metrics.getElapsedMillis() + " ms ("
+				+ Math.round(metrics.getRowsPerSecond()) + " rows/s)");
+	}
+
+	private FundType findOrCreateType(String fundTypeName) {
+		return fundTypeRepository.findByName(fundTypeName).orElseGet(() -> {
 			System.out.println("FundType '" + fundTypeName + "' not found. Creating it...");
 			FundType newType = new FundType();
 			newType.setName(fundTypeName); // Assuming FundType has a setName method
 			return fundTypeRepository.save(newType);
 		});
+	}
 
-		System.out
-				.println("Excel file" + excelFile.getFilename() + " exists? " + excelFile.exists() + " | " + excelFile);
-		long t0 = System.currentTimeMillis();
-		System.out.println("IMPORT: opening InputStream...");
-		InputStream is = excelFile.getInputStream();
-		System.out.println("IMPORT: InputStream opened in " + (System.currentTimeMillis() - t0) + " ms");
-
-		t0 = System.currentTimeMillis();
-		System.out.println("IMPORT: opening workbook...");
-		Workbook workbook = StreamingReader.builder().rowCacheSize(100).bufferSize(4096).open(is);
-		System.out.println("IMPORT: workbook opened in " + (System.currentTimeMillis() - t0) + " ms");
-		System.out.println("Workbook opened in STREAMING mode.");
-		Sheet sheet = workbook.getSheetAt(0);
-		int rows = 0;
-
-		for (Row row : sheet) {
-			if (row.getRowNum() == 0)
-				continue; // Skip Header
-
-			try {
+	private List<Map.Entry<FundTypeEnum, Resource>> parseSources() {
+		List<Map.Entry<FundTypeEnum, Resource>> result = new ArrayList<>();
+		if (sourcesProperty == null || sourcesProperty.isBlank()) {
+			result.add(Map.entry(FundTypeEnum.INVESTMENT, excelFile));
+			return result;
+		}
 
-				if (++rows % 10 == 0)
-					System.out.println("…processed rows=" + rows);
-
-				// --- A. Read Basic Info ---
-				String code = getStringValue(row.getCell(1));
-				String name = getStringValue(row.getCell(2));
-
-				if (code == null || code.trim().isEmpty() || code.equals("Fon Kodu")) {
-					continue;
-				}
-
-				// --- B. Find or Create the Fund ---
-				Fund fund = fundRepository.findByCode(code).orElseGet(() -> {
-					Fund f = new Fund();
-					f.setCode(code);
-					f.setName(name);
-					f.setType(type);
-					insertedFunds++;
-					return fundRepository.save(f);
-				});
-
-				// --- C. Read Historical Data ---
-				Date excelDate = null;
-				try {
-					excelDate = row.getCell(0).getDateCellValue();
-				} catch (Exception e) {
-					continue;
-				} // Skip if date is invalid
-
-				if (excelDate != null) {
-					java.time.LocalDate localDate = excelDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-
-					// Check for duplicates
-
-					BigDecimal price = getBigDecimalValue(row.getCell(3)); // Fiyat
-					BigDecimal units = getBigDecimalValue(row.getCell(4)); // Tedavüldeki Pay Sayısı
-					Integer investors = getIntegerValue(row.getCell(5)); // Kişi Sayısı
-					BigDecimal totalVal = getBigDecimalValue(row.getCell(6)); // Fon Toplam Değer
-
-					FundPrice fp = new FundPrice();
-					fp.setFund(fund);
-					fp.setDate(localDate);
-					fp.setPrice(price);
-					fp.setCirculatingUnits(units); // Maps to 'circulating_units'
-					fp.setInvestorCount(investors); // Maps to 'investor_count'
-					fp.setTotalValue(totalVal);
-					try {
-						int inserted = fundPriceRepository.insertIgnoreDuplicate(fund.getId(), localDate, price, units,
-								investors, totalVal);
-
-						processed++;
-						if (inserted == 1) {
-							insertedPrices++;
-						} else {
-							// duplicate skipped
-						}
-					} catch (org.springframework.dao.DataIntegrityViolationException dup) {
-						// duplicate row -> ignore
-					}
-				}
-			} catch (Exception e) {
-				System.out.println("Failed at excelRow=" + row.getRowNum());
-				e.printStackTrace();
-				throw e;
+		for (String item : sourcesProperty.split(",")) {
+			String trimmed = item.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			int eq = trimmed.indexOf('=');
+			if (eq <= 0) {
+				throw new IllegalArgumentException("app.data.import.sources entry must be TYPE=location: " + trimmed);
 			}
+			FundTypeEnum type = FundTypeEnum.valueOf(trimmed.substring(0, eq).trim());
+			Resource resource = resourceLoader.getResource(trimmed.substring(eq + 1).trim());
+			result.add(Map.entry(type, resource));
 		}
+		return result;
+	}
 
-		System.out.println("Total processed rows=" + rows);
-		System.out.println(
-				"processedRows=" + processed + " insertedFunds=" + insertedFunds + " insertedPrices=" + insertedPrices);
+	// --- Pipeline callbacks, called from parser and writer threads ---
 
+	@Override
+	public void onRowsParsed(int count) {
+		metrics.addRowsParsed(count);
 	}
 
-	// --- Helper Methods ---
-
-	private String getStringValue(Cell cell) {
-		if (cell == null)
-			return "";
-		if (cell.getCellType() == CellType.STRING)
-			return cell.getStringCellValue();
-		if (cell.getCellType() == CellType.NUMERIC)
-			return String.valueOf(cell.getNumericCellValue());
-		return "";
+	@Override
+	public void onRowsSkipped(int count) {
+		metrics.addRowsSkipped(count);
 	}
 
-	private BigDecimal getBigDecimalValue(Cell cell) {
-		if (cell == null)
-			return BigDecimal.ZERO;
-		if (cell.getCellType() == CellType.NUMERIC)
-			return BigDecimal.valueOf(cell.getNumericCellValue());
-		try {
-			if (cell.getCellType() == CellType.STRING)
-				return new BigDecimal(cell.getStringCellValue().trim());
-		} catch (Exception e) {
-		}
-		return BigDecimal.ZERO;
+	@Override
+	public void onFundsCreated(int count) {
+		metrics.addFundsCreated(count);
 	}
 
-	private Integer getIntegerValue(Cell cell) {
-		if (cell == null)
-			return 0;
-		if (cell.getCellType() == CellType.NUMERIC)
-			return (int) cell.getNumericCellValue();
-		try {
-			if (cell.getCellType() == CellType.STRING)
-				return Integer.parseInt(cell.getStringCellValue().trim().replace(".", ""));
-		} catch (Exception e) {
+	@Override
+	public void onCommit(BatchResult result) {
+		long batch = metrics.addCommit(result);
+		if (result.getInserted() > 0) {
+			eventPublisher.publishEvent(new FundPriceBatchCommittedEvent(result.getInserted()));
 		}
-		return 0;
+
+		System.out.println("…batch #" + batch + " rows=" + result.getTotal() + " inserted=" + result.getInserted()
+				+ " duplicates=" + result.getDuplicates() + " (processed=" + metrics.getRowsWritten() + ") thread="
+				+ Thread.currentThread().getName());
 	}
-}
\ No newline at end of file
+}
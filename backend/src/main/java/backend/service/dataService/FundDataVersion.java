@@ -0,0 +1,87 @@
+package backend.service.dataService;
+
+import java.sql.Timestamp;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import backend.service.dataService.priceStore.FundPriceStore;
+import backend.service.dataService.priceStore.FundPriceStoreReloadedEvent;
+
+/**
+ * Version of the imported fund data, for HTTP caching of the fund endpoints.
+ * It is derived from the database, so every instance behind a CDN arrives at
+ * the same value: the latest price date and projection update, the latest
+ * committed import batch, the last statistics refresh and the fund count.
+ * Read once at startup and again after each import, never per request.
+ * <p>
+ * With the price store enabled the version only moves once the store holds the
+ * import; moving it earlier would label responses still built from the old
+ * snapshot with the new version, and caches would keep them.
+ */
+@Component
+public class FundDataVersion {
+
+	private static final String VERSION_SQL = """
+			SELECT (SELECT max(date) FROM fund_latest_price),
+			       (SELECT max(updated_at) FROM fund_latest_price),
+			       (SELECT max(updated_at) FROM import_checkpoints),
+			       (SELECT count(*) FROM funds),
+			       (SELECT max(id) FROM funds),
+			       (SELECT max(updated_at) FROM fund_statistics)
+			""";
+
+	public record Version(String tag, long lastModified) {
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final FundPriceStore fundPriceStore;
+
+	private volatile Version current;
+
+	public FundDataVersion(JdbcTemplate jdbcTemplate, FundPriceStore fundPriceStore) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.fundPriceStore = fundPriceStore;
+	}
+
+	public Version current() {
+		Version v = current;
+		return v != null ? v : refresh();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		refresh();
+	}
+
+	@EventListener
+	public void onFundPricesImported(FundPricesImportedEvent event) {
+		if (!fundPriceStore.isEnabled()) {
+			refresh();
+		}
+	}
+
+	@EventListener
+	public void onPriceStoreReloaded(FundPriceStoreReloadedEvent event) {
+		refresh();
+	}
+
+	public Version refresh() {
+		Version v = jdbcTemplate.queryForObject(VERSION_SQL, (rs, rowNum) -> {
+			Timestamp priceUpdate = rs.getTimestamp(2);
+			Timestamp importUpdate = rs.getTimestamp(3);
+			Timestamp statisticsUpdate = rs.getTimestamp(6);
+			long lastModified = Math.max(priceUpdate != null ? priceUpdate.getTime() : 0,
+					importUpdate != null ? importUpdate.getTime() : 0);
+			lastModified = Math.max(lastModified, statisticsUpdate != null ? statisticsUpdate.getTime() : 0);
+
+			String key = rs.getString(1) + "|" + priceUpdate + "|" + importUpdate + "|" + rs.getLong(4) + "|"
+					+ rs.getLong(5) + "|" + statisticsUpdate;
+			return new Version(Integer.toHexString(key.hashCode()), lastModified);
+		});
+		current = v;
+		return v;
+	}
+}
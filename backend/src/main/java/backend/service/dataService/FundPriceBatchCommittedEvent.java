@@ -0,0 +1,8 @@
+package backend.service.dataService;
+
+/**
+ * Published by {@link FundDataImportService} from the writer thread each time
+ * an import batch commits new price rows, while the run is still going.
+ */
+public record FundPriceBatchCommittedEvent(int rowsInserted) {
+}
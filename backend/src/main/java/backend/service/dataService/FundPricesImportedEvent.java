@@ -0,0 +1,9 @@
+package backend.service.dataService;
+
+/**
+ * Published by {@link FundDataImportService} after an import run that
+ * committed new price rows or funds, also when the run failed later on. Caches
+ * and in-memory copies of fund_price_history listen to it.
+ */
+public record FundPricesImportedEvent(long rowsInserted, long fundsCreated, boolean succeeded) {
+}
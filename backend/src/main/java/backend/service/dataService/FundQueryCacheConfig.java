@@ -0,0 +1,36 @@
+package backend.service.dataService;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-process caches for the FundService queries whose results only depend on
+ * the imported data. Each cache is bounded by weight, a result weighing one
+ * unit per fund row it holds, so a few large lists cannot crowd out memory;
+ * the least valuable entries are evicted first. {@link FundQueryCaches}
+ * clears them when an import changes the data.
+ */
+@Configuration
+@EnableCaching
+public class FundQueryCacheConfig {
+
+	@Value("${app.cache.fund-queries.max-rows:200000}")
+	private long maxRowsPerCache;
+
+	@Bean
+	public CacheManager cacheManager() {
+		CaffeineCacheManager manager = new CaffeineCacheManager(FundQueryCaches.NAMES);
+		manager.setCaffeine(Caffeine.newBuilder().maximumWeight(maxRowsPerCache)
+				.weigher((Object key, Object value) -> value instanceof Collection<?> c ? c.size() + 1 : 1)
+				.recordStats());
+		return manager;
+	}
+}
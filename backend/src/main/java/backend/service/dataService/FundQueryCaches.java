@@ -0,0 +1,103 @@
+package backend.service.dataService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import backend.frontendModels.CacheStatsForUI;
+import backend.service.dataService.priceStore.FundPriceStore;
+import backend.service.dataService.priceStore.FundPriceStoreReloadedEvent;
+
+/**
+ * Names of the FundService result caches, their invalidation and statistics.
+ * Everything is dropped at the end of an import that committed rows, and again
+ * once the price store holds them, so no result computed from the old snapshot
+ * survives.
+ * <p>
+ * Without the store the caches read the database directly, so they are also
+ * dropped as batches commit during the run, at most once per
+ * app.cache.fund-queries.import-clear-interval-ms; a long import then shows up
+ * batch by batch instead of only when it ends. With the store nothing is
+ * visible before it reloads, so mid-run clears would only cost hit rate.
+ */
+@Component
+public class FundQueryCaches {
+
+	public static final String ALL_FUNDS = "allFunds";
+	public static final String FUNDS_ON_DATE = "fundsOnDate";
+	public static final String TOP_CHANGERS = "topChangers";
+	public static final String FUNDS_BY_LATEST_PRICE = "fundsByLatestPrice";
+
+	static final String[] NAMES = { ALL_FUNDS, FUNDS_ON_DATE, TOP_CHANGERS, FUNDS_BY_LATEST_PRICE };
+
+	private final CacheManager cacheManager;
+	private final FundPriceStore fundPriceStore;
+	private final long importClearIntervalMillis;
+
+	// When a committed batch last cleared the caches
+	private final AtomicLong lastBatchClear = new AtomicLong();
+
+	public FundQueryCaches(CacheManager cacheManager, FundPriceStore fundPriceStore,
+			@Value("${app.cache.fund-queries.import-clear-interval-ms:5000}") long importClearIntervalMillis) {
+		this.cacheManager = cacheManager;
+		this.fundPriceStore = fundPriceStore;
+		this.importClearIntervalMillis = importClearIntervalMillis;
+	}
+
+	// Called on the writer threads
+	@EventListener
+	public void onFundPriceBatchCommitted(FundPriceBatchCommittedEvent event) {
+		if (fundPriceStore.isEnabled()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long last = lastBatchClear.get();
+		// One writer wins the interval, the end-of-run clear covers the rest
+		if (now - last >= importClearIntervalMillis && lastBatchClear.compareAndSet(last, now)) {
+			clearAll();
+		}
+	}
+
+	@EventListener
+	public void onFundPricesImported(FundPricesImportedEvent event) {
+		clearAll();
+	}
+
+	@EventListener
+	public void onPriceStoreReloaded(FundPriceStoreReloadedEvent event) {
+		clearAll();
+	}
+
+	public void clearAll() {
+		for (String name : NAMES) {
+			cacheManager.getCache(name).clear();
+		}
+	}
+
+	public List<CacheStatsForUI> getStats() {
+		List<CacheStatsForUI> result = new ArrayList<>();
+		for (String name : NAMES) {
+			CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+			CacheStats stats = cache.getNativeCache().stats();
+
+			CacheStatsForUI dto = new CacheStatsForUI();
+			dto.setName(name);
+			dto.setEntries(cache.getNativeCache().estimatedSize());
+			dto.setWeight(cache.getNativeCache().policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L));
+			dto.setHits(stats.hitCount());
+			dto.setMisses(stats.missCount());
+			dto.setHitRate(Math.round(stats.hitRate() * 1000) / 1000.0);
+			dto.setEvictions(stats.evictionCount());
+			result.add(dto);
+		}
+		return result;
+	}
+}
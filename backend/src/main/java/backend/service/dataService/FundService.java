@@ -5,22 +5,42 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import backend.common.ChangeDirectionEnum;
+import backend.common.FundTypeEnum;
+import backend.common.SeriesResolutionEnum;
+import backend.exceptions.BadRequestException;
 import backend.exceptions.NotFoundException;
 import backend.frontendModels.FundForUI;
+import backend.frontendModels.FundHistoryColumnsForUI;
+import backend.frontendModels.FundHistoryPageForUI;
+import backend.frontendModels.FundPricePointForUI;
+import backend.frontendModels.FundSearchResultForUI;
+import backend.frontendModels.FundSuggestionForUI;
 import backend.frontendModels.RequestModels.FundSearchRequest;
 import backend.service.dataService.entity.Fund;
+import backend.service.dataService.entity.FundLatestPrice;
 import backend.service.dataService.entity.FundPrice;
+import backend.service.dataService.priceStore.FundPriceSeries;
+import backend.service.dataService.priceStore.FundPriceStore;
+import backend.service.dataService.repository.FundLatestPriceRepository;
+import backend.service.dataService.repository.FundLatestPriceSpecifications;
 import backend.service.dataService.repository.FundPriceRepository;
 import backend.service.dataService.repository.FundRepository;
+import backend.service.dataService.search.FundNameIndex;
+import jakarta.persistence.EntityManager;
 
 @Service
 public class FundService {
@@ -31,6 +51,21 @@ public class FundService {
 	@Autowired
 	private FundPriceRepository fundPriceRepository;
 
+	@Autowired
+	private FundLatestPriceRepository fundLatestPriceRepository;
+
+	@Autowired
+	private FundPriceStore fundPriceStore;
+
+	@Autowired
+	private FundNameIndex fundNameIndex;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
 	// ---------- Helper mapping ----------
 
 	private FundForUI toDto(Fund fund, FundPrice fp) {
@@ -53,32 +88,65 @@ public class FundService {
 		return dto;
 	}
 
-	// ---------- 1) All funds with their LATEST price (optimized) ----------
+	private FundForUI toDto(FundPriceSeries series, int i) {
+		FundForUI dto = new FundForUI();
+		dto.setCode(series.getCode());
+		dto.setName(series.getName());
+		dto.setType(series.getTypeName());
+		dto.setDate(series.date(i));
+		dto.setPrice(series.price(i));
+		dto.setCirculatingUnits(series.circulatingUnits(i));
+		dto.setInvestorCount(series.investorCount(i));
+		dto.setTotalValue(series.totalValue(i));
+		return dto;
+	}
 
-	public List<FundForUI> getAllFundsForUI() {
-		// One query for all funds
-		List<Fund> funds = fundRepository.findAll();
+	private FundPricePointForUI toPoint(FundPrice fp) {
+		FundPricePointForUI point = new FundPricePointForUI();
+		point.setDate(fp.getDate());
+		point.setPrice(fp.getPrice());
+		point.setCirculatingUnits(fp.getCirculatingUnits());
+		point.setInvestorCount(fp.getInvestorCount());
+		point.setTotalValue(fp.getTotalValue());
+		return point;
+	}
 
-		// One query for all latest prices (no N+1)
-		List<FundPrice> latestPrices = fundPriceRepository.findLatestPriceForAllFunds();
+	private FundPricePointForUI toPoint(FundPriceSeries series, int i) {
+		FundPricePointForUI point = new FundPricePointForUI();
+		point.setDate(series.date(i));
+		point.setPrice(series.price(i));
+		point.setCirculatingUnits(series.circulatingUnits(i));
+		point.setInvestorCount(series.investorCount(i));
+		point.setTotalValue(series.totalValue(i));
+		return point;
+	}
 
-		// Map: fundId -> latest price
-		Map<Long, FundPrice> latestByFundId = new HashMap<>();
-		for (FundPrice fp : latestPrices) {
-			Fund fund = fp.getFund();
-			if (fund != null && fund.getId() != null) {
-				latestByFundId.put(fund.getId(), fp);
-			}
+	private FundForUI toDto(Fund fund, FundLatestPrice lp) {
+		FundForUI dto = toDto(fund, (FundPrice) null);
+
+		if (lp != null) {
+			dto.setDate(lp.getDate());
+			dto.setPrice(lp.getPrice());
+			dto.setCirculatingUnits(lp.getCirculatingUnits());
+			dto.setInvestorCount(lp.getInvestorCount());
+			dto.setTotalValue(lp.getTotalValue());
 		}
 
-		List<FundForUI> response = new ArrayList<>(funds.size());
+		return dto;
+	}
 
-		for (Fund fund : funds) {
-			FundPrice latest = null;
-			if (fund.getId() != null) {
-				latest = latestByFundId.get(fund.getId());
-			}
-			response.add(toDto(fund, latest));
+	// ---------- 1) All funds with their LATEST price (optimized) ----------
+
+	@Cacheable(FundQueryCaches.ALL_FUNDS)
+	public List<FundForUI> getAllFundsForUI() {
+		// One query: funds, their type and the fund_latest_price row kept by the
+		// importer
+		List<Object[]> rows = fundLatestPriceRepository.findAllFundsWithLatestPrice();
+
+		List<FundForUI> response = new ArrayList<>(rows.size());
+
+		for (Object[] row : rows) {
+			response.add(toDto((Fund) row[0], (FundLatestPrice) row[1]));
 		}
 
 		return response;
@@ -87,9 +155,102 @@ public class FundService {
 	// ---------- 2) Single fund with history (code + optional date range)
 	// ----------
 
-	public List<FundForUI> getFundForUIByCodeAndOptionalDateRange(String code, LocalDate startDate, LocalDate endDate) {
-		Fund fund = fundRepository.findByCode(code)
-				.orElseThrow(() -> new NotFoundException("Fund not found with code: " + code));
+	/**
+	 * @param resolution null or DAILY for every price, otherwise the last price
+	 *                   of each week / month
+	 * @param maxPoints  optional upper bound on the number of prices, thinned
+	 *                   with {@link SeriesDownsampler}
+	 */
+	public List<FundForUI> getFundForUIByCodeAndOptionalDateRange(String code, LocalDate startDate, LocalDate endDate,
+			SeriesResolutionEnum resolution, Integer maxPoints) {
+		HistorySelection history = selectHistory(code, startDate, endDate, resolution, maxPoints);
+
+		List<FundForUI> result = new ArrayList<>(history.kept().length);
+		for (int i : history.kept()) {
+			result.add(history.series() != null ? toDto(history.series(), i)
+					: toDto(history.fund(), history.rows().get(i)));
+		}
+		return result;
+	}
+
+	/**
+	 * The prices of {@link #getFundForUIByCodeAndOptionalDateRange} as one array
+	 * per field, with the fund's code, name and type sent once.
+	 */
+	public FundHistoryColumnsForUI getFundHistoryColumns(String code, LocalDate startDate, LocalDate endDate,
+			SeriesResolutionEnum resolution, Integer maxPoints) {
+		HistorySelection history = selectHistory(code, startDate, endDate, resolution, maxPoints);
+
+		int[] kept = history.kept();
+		LocalDate[] dates = new LocalDate[kept.length];
+		BigDecimal[] prices = new BigDecimal[kept.length];
+		BigDecimal[] units = new BigDecimal[kept.length];
+		Integer[] investors = new Integer[kept.length];
+		BigDecimal[] totalValues = new BigDecimal[kept.length];
+
+		FundHistoryColumnsForUI columns = new FundHistoryColumnsForUI();
+		FundPriceSeries series = history.series();
+		if (series != null) {
+			columns.setCode(series.getCode());
+			columns.setName(series.getName());
+			columns.setType(series.getTypeName());
+			for (int k = 0; k < kept.length; k++) {
+				int i = kept[k];
+				dates[k] = series.date(i);
+				prices[k] = series.price(i);
+				units[k] = series.circulatingUnits(i);
+				investors[k] = series.investorCount(i);
+				totalValues[k] = series.totalValue(i);
+			}
+		} else {
+			Fund fund = history.fund();
+			columns.setCode(fund.getCode());
+			columns.setName(fund.getName());
+			columns.setType(fund.getType() != null ? fund.getType().getName() : null);
+			for (int k = 0; k < kept.length; k++) {
+				FundPrice fp = history.rows().get(kept[k]);
+				dates[k] = fp.getDate();
+				prices[k] = fp.getPrice();
+				units[k] = fp.getCirculatingUnits();
+				investors[k] = fp.getInvestorCount();
+				totalValues[k] = fp.getTotalValue();
+			}
+		}
+
+		columns.setDates(dates);
+		columns.setPrices(prices);
+		columns.setCirculatingUnits(units);
+		columns.setInvestorCounts(investors);
+		columns.setTotalValues(totalValues);
+		return columns;
+	}
+
+	// The prices a history request returns: indices into the store's series, or
+	// into rows read from the database when the store is not loaded
+	private record HistorySelection(FundPriceSeries series, Fund fund, List<FundPrice> rows, int[] kept) {
+	}
+
+	private HistorySelection selectHistory(String code, LocalDate startDate, LocalDate endDate,
+			SeriesResolutionEnum resolution, Integer maxPoints) {
+		FundPriceSeries series = fundPriceStore.get(code);
+		if (series != null) {
+			int from = 0;
+			int to = series.size();
+			if (startDate != null && endDate != null) {
+				from = series.ceilingIndex(startDate);
+				to = Math.max(from, series.floorIndex(endDate) + 1);
+			}
+
+			int offset = from;
+			int[] kept = SeriesDownsampler.select(to - from, i -> series.epochDay(offset + i),
+					i -> series.priceMicros(offset + i), resolution, maxPoints);
+			for (int k = 0; k < kept.length; k++) {
+				kept[k] += offset;
+			}
+			return new HistorySelection(series, null, null, kept);
+		}
+
+		Fund fund = findFund(code);
 
 		List<FundPrice> prices;
 		if (startDate != null && endDate != null) {
@@ -98,19 +259,135 @@ public class FundService {
 			prices = fundPriceRepository.findByFundOrderByDate(fund);
 		}
 
-		List<FundForUI> result = new ArrayList<>(prices.size());
+		int[] kept = SeriesDownsampler.select(prices.size(), i -> prices.get(i).getDate().toEpochDay(),
+				i -> prices.get(i).getPrice().doubleValue(), resolution, maxPoints);
+		return new HistorySelection(null, fund, prices, kept);
+	}
 
-		for (FundPrice fp : prices) {
-			result.add(toDto(fund, fp));
+	// ---------- 2b) Single fund history in keyset pages or as a stream ----------
+
+	// Open ends of a history range, inside PostgreSQL's date range
+	static final LocalDate FIRST_DAY = LocalDate.of(1900, 1, 1);
+	static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+	private static final int MAX_HISTORY_PAGE_SIZE = 5000;
+
+	/**
+	 * Up to limit prices of the fund after the cursor date (or from the start
+	 * of the range), with the fund's code, name and type sent once.
+	 */
+	public FundHistoryPageForUI getFundHistoryPage(String code, LocalDate after, LocalDate startDate,
+			LocalDate endDate, int limit) {
+
+		if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+			throw new BadRequestException("limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE + ".");
 		}
 
-		return result;
+		LocalDate from = startDate != null ? startDate : FIRST_DAY;
+		if (after != null && !after.isBefore(from)) {
+			from = after.plusDays(1);
+		}
+		LocalDate to = endDate != null ? endDate : LAST_DAY;
+
+		FundHistoryPageForUI page = new FundHistoryPageForUI();
+		List<FundPricePointForUI> points = new ArrayList<>();
+		boolean more;
+
+		FundPriceSeries series = fundPriceStore.get(code);
+		if (series != null) {
+			page.setCode(series.getCode());
+			page.setName(series.getName());
+			page.setType(series.getTypeName());
+
+			int i = series.ceilingIndex(from);
+			int end = series.floorIndex(to) + 1;
+			for (; i < end && points.size() < limit; i++) {
+				points.add(toPoint(series, i));
+			}
+			more = i < end;
+		} else {
+			Fund fund = findFund(code);
+			page.setCode(fund.getCode());
+			page.setName(fund.getName());
+			page.setType(fund.getType() != null ? fund.getType().getName() : null);
+
+			// One row past the page tells whether another page follows
+			List<FundPrice> rows = fundPriceRepository.findByFundAndDateBetweenOrderByDate(fund, from, to,
+					PageRequest.of(0, limit + 1));
+			more = rows.size() > limit;
+			for (FundPrice fp : rows.subList(0, Math.min(limit, rows.size()))) {
+				points.add(toPoint(fp));
+			}
+		}
+
+		page.setPrices(points);
+		page.setNextCursor(more ? points.get(points.size() - 1).getDate() : null);
+		return page;
+	}
+
+	/** Fails with NotFoundException before anything is streamed for an unknown code. */
+	public void requireFund(String code) {
+		if (fundPriceStore.get(code) == null) {
+			findFund(code);
+		}
+	}
+
+	/**
+	 * Hands the fund's prices in the optional range to the action one at a
+	 * time, oldest first. Read from the price store, or through a database
+	 * cursor whose entities are dropped as soon as they are handed over, so
+	 * memory stays flat for any history length.
+	 */
+	public void streamFundHistory(String code, LocalDate startDate, LocalDate endDate,
+			Consumer<FundPricePointForUI> action) {
+
+		LocalDate from = startDate != null ? startDate : FIRST_DAY;
+		LocalDate to = endDate != null ? endDate : LAST_DAY;
+
+		FundPriceSeries series = fundPriceStore.get(code);
+		if (series != null) {
+			int end = series.floorIndex(to) + 1;
+			for (int i = series.ceilingIndex(from); i < end; i++) {
+				action.accept(toPoint(series, i));
+			}
+			return;
+		}
+
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readOnly.executeWithoutResult(status -> {
+			Fund fund = findFund(code);
+			try (Stream<FundPrice> prices = fundPriceRepository.streamByFundAndDateBetweenOrderByDate(fund, from,
+					to)) {
+				prices.forEach(fp -> {
+					action.accept(toPoint(fp));
+					entityManager.detach(fp);
+				});
+			}
+		});
+	}
+
+	private Fund findFund(String code) {
+		return fundRepository.findByCode(code)
+				.orElseThrow(() -> new NotFoundException("Fund not found with code: " + code));
 	}
 
 	// ---------- 3) All funds in a date range (you already had a good query)
 	// ----------
 
+	@Cacheable(FundQueryCaches.FUNDS_ON_DATE)
 	public List<FundForUI> getFundsForUIByDateRange(LocalDate date) {
+		List<FundPriceSeries> allSeries = fundPriceStore.all();
+		if (allSeries != null) {
+			List<FundForUI> result = new ArrayList<>();
+			for (FundPriceSeries series : allSeries) {
+				int i = series.indexOf(date);
+				if (i >= 0) {
+					result.add(toDto(series, i));
+				}
+			}
+			return result;
+		}
+
 		// Assumes this query already does JOIN FETCH fund and type
 		List<FundPrice> prices = fundPriceRepository.findByDateWithFund(date);
 		List<FundForUI> result = new ArrayList<>(prices.size());
@@ -126,113 +403,168 @@ public class FundService {
 	// ---------- 4) Funds whose LATEST price is in [minPrice, maxPrice] (optimized)
 	// ----------
 
+	@Cacheable(FundQueryCaches.FUNDS_BY_LATEST_PRICE)
 	public List<FundForUI> getFundsByLatestPriceInRange(BigDecimal minPrice, BigDecimal maxPrice) {
 
-		// Instead of: findAll funds + query latest for each fund (N+1),
-		// we query directly for the latest FundPrice rows in range.
-		List<FundPrice> latestInRange = fundPriceRepository.findLatestPriceInRange(minPrice, maxPrice);
+		// Range scan on the price index of fund_latest_price
+		List<FundLatestPrice> latestInRange = fundLatestPriceRepository.findByPriceBetweenWithFund(minPrice,
+				maxPrice);
 
 		List<FundForUI> result = new ArrayList<>(latestInRange.size());
 
-		for (FundPrice fp : latestInRange) {
-			Fund fund = fp.getFund();
-			result.add(toDto(fund, fp));
+		for (FundLatestPrice lp : latestInRange) {
+			result.add(toDto(lp.getFund(), lp));
 		}
 
 		return result;
 	}
 
-	// ---------- 5) Search (still TODO) ----------
+	// ---------- 5) Search over the latest snapshot of every fund ----------
 
-	public List<FundForUI> search(FundSearchRequest request) {
-		// TODO: implement when you decide criteria
-		return List.of();
-	}
+	private static final List<String> SEARCH_SORT_KEYS = List.of("code", "name", "date", "price", "totalValue",
+			"circulatingUnits", "investorCount");
+	private static final int MAX_SEARCH_PAGE_SIZE = 200;
 
-	// ---------- 6) Top 5 by change (already optimized with heap) ----------
+	public FundSearchResultForUI search(FundSearchRequest request) {
+		if (!SEARCH_SORT_KEYS.contains(request.getSort())) {
+			throw new BadRequestException("sort must be one of " + SEARCH_SORT_KEYS + ".");
+		}
+		boolean ascending;
+		if ("asc".equalsIgnoreCase(request.getDirection())) {
+			ascending = true;
+		} else if ("desc".equalsIgnoreCase(request.getDirection())) {
+			ascending = false;
+		} else {
+			throw new BadRequestException("direction must be asc or desc.");
+		}
+		if (request.getPage() < 0 || request.getSize() < 1 || request.getSize() > MAX_SEARCH_PAGE_SIZE) {
+			throw new BadRequestException("page must be >= 0 and size between 1 and " + MAX_SEARCH_PAGE_SIZE + ".");
+		}
 
-	private static class FundChangeSnapshot {
-		private final Fund fund;
-		private final FundPrice endPriceRow;
-		private final BigDecimal change;
+		// One filtered, sorted and limited query plus its count
+		Page<FundLatestPrice> page = fundLatestPriceRepository.findAll(
+				FundLatestPriceSpecifications.screen(request, request.getSort(), ascending),
+				PageRequest.of(request.getPage(), request.getSize()));
 
-		public FundChangeSnapshot(Fund fund, FundPrice endPriceRow, BigDecimal change) {
-			this.fund = fund;
-			this.endPriceRow = endPriceRow;
-			this.change = change;
+		List<FundForUI> funds = new ArrayList<>(page.getNumberOfElements());
+		for (FundLatestPrice lp : page) {
+			funds.add(toDto(lp.getFund(), lp));
 		}
 
-		public Fund getFund() {
-			return fund;
-		}
+		FundSearchResultForUI result = new FundSearchResultForUI();
+		result.setFunds(funds);
+		result.setPage(page.getNumber());
+		result.setSize(page.getSize());
+		result.setTotalElements(page.getTotalElements());
+		result.setTotalPages(page.getTotalPages());
+		return result;
+	}
+
+	// ---------- 5b) Typeahead over fund codes and names ----------
+
+	private static final int MAX_SUGGESTIONS = 50;
 
-		public FundPrice getEndPriceRow() {
-			return endPriceRow;
+	public List<FundSuggestionForUI> suggestFunds(String query, int limit) {
+		if (limit < 1 || limit > MAX_SUGGESTIONS) {
+			throw new BadRequestException("limit must be between 1 and " + MAX_SUGGESTIONS + ".");
 		}
 
-		public BigDecimal getChange() {
-			return change;
+		List<FundSuggestionForUI> suggestions = new ArrayList<>();
+		for (FundNameIndex.Match match : fundNameIndex.search(query, limit)) {
+			FundSuggestionForUI dto = new FundSuggestionForUI();
+			dto.setCode(match.code());
+			dto.setName(match.name());
+			dto.setType(match.typeName());
+			dto.setScore(Math.round(match.score() * 1000) / 1000.0);
+			suggestions.add(dto);
 		}
+		return suggestions;
 	}
 
-	public List<FundForUI> getTop5FundsByChange(LocalDate startDate, LocalDate endDate) {
+	// ---------- 6) Top N by change (price store or one ranking query) ----------
 
-		// 1. Only funds that have records on BOTH dates
-		List<Fund> activeFunds = fundPriceRepository.findFundsWithPricesOnBothDates(startDate, endDate);
+	private static final int MAX_TOP_CHANGERS = 100;
 
-		// Min-heap: smallest change at the top
-		PriorityQueue<FundChangeSnapshot> best5 = new PriorityQueue<>(5,
-				Comparator.comparing(FundChangeSnapshot::getChange));
+	/**
+	 * Funds with the largest price change between the two dates, gainers (only
+	 * rises) or losers (only drops), optionally of one fund type. Ranked over
+	 * the price store; before it is loaded both boundary prices of every fund
+	 * come from a single join and the database ranks and limits them.
+	 */
+	@Cacheable(FundQueryCaches.TOP_CHANGERS)
+	public List<FundForUI> getTopFundsByChange(LocalDate startDate, LocalDate endDate, int limit,
+			ChangeDirectionEnum direction, FundTypeEnum type) {
 
-		for (Fund fund : activeFunds) {
+		if (limit < 1 || limit > MAX_TOP_CHANGERS) {
+			throw new BadRequestException("limit must be between 1 and " + MAX_TOP_CHANGERS + ".");
+		}
 
-			Optional<FundPrice> startOpt = fundPriceRepository.findByFundAndDate(fund, startDate);
-			Optional<FundPrice> endOpt = fundPriceRepository.findByFundAndDate(fund, endDate);
+		String typeName = type != null ? type.getName() : null;
 
-			if (!startOpt.isPresent() || !endOpt.isPresent()) {
-				continue;
-			}
+		List<FundPriceSeries> allSeries = fundPriceStore.all();
+		if (allSeries != null) {
+			return topChangesFromStore(allSeries, startDate, endDate, limit, direction, typeName);
+		}
 
-			FundPrice startPriceRow = startOpt.get();
-			FundPrice endPriceRow = endOpt.get();
+		Pageable top = PageRequest.of(0, limit);
+		List<Object[]> rows = direction == ChangeDirectionEnum.LOSERS
+				? fundPriceRepository.findTopLosers(startDate, endDate, typeName, top)
+				: fundPriceRepository.findTopGainers(startDate, endDate, typeName, top);
 
-			BigDecimal startPrice = startPriceRow.getPrice();
-			BigDecimal endPrice = endPriceRow.getPrice();
+		List<FundForUI> result = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			FundPrice endPriceRow = (FundPrice) row[0];
+			BigDecimal startPrice = (BigDecimal) row[1];
 
-			if (startPrice == null || endPrice == null || startPrice.compareTo(BigDecimal.ZERO) == 0) {
-				continue;
-			}
+			BigDecimal change = endPriceRow.getPrice().subtract(startPrice)
+					.divide(startPrice, 6, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
 
-			BigDecimal change = endPrice.subtract(startPrice).divide(startPrice, 6, RoundingMode.HALF_UP)
-					.multiply(BigDecimal.valueOf(100));
+			FundForUI dto = toDto(endPriceRow.getFund(), endPriceRow);
+			dto.setChange(change);
+			result.add(dto);
+		}
 
-			// Only positive changes
-			if (change.compareTo(BigDecimal.ZERO) <= 0) {
-				continue;
-			}
+		return result;
+	}
 
-			FundChangeSnapshot snapshot = new FundChangeSnapshot(fund, endPriceRow, change);
+	// Same ranking as findTopGainers / findTopLosers, two binary searches per fund
+	private List<FundForUI> topChangesFromStore(List<FundPriceSeries> allSeries, LocalDate startDate,
+			LocalDate endDate, int limit, ChangeDirectionEnum direction, String typeName) {
 
-			if (best5.size() < 5) {
-				best5.offer(snapshot);
-			} else if (change.compareTo(best5.peek().getChange()) > 0) {
-				// Current change is better than the smallest in heap
-				best5.poll();
-				best5.offer(snapshot);
+		boolean gainers = direction != ChangeDirectionEnum.LOSERS;
+		List<PriceChange> changes = new ArrayList<>();
+		for (FundPriceSeries series : allSeries) {
+			if (typeName != null && !typeName.equals(series.getTypeName())) {
+				continue;
+			}
+			int s = series.indexOf(startDate);
+			int e = series.indexOf(endDate);
+			if (s < 0 || e < 0 || series.priceMicros(s) <= 0) {
+				continue;
+			}
+			long start = series.priceMicros(s);
+			long end = series.priceMicros(e);
+			if (gainers ? end > start : end < start) {
+				changes.add(new PriceChange(series, s, e, (double) (end - start) / start));
 			}
 		}
 
-		// Now best5 contains at most 5 snapshots in a heap
-		List<FundChangeSnapshot> topList = new ArrayList<>(best5);
-		topList.sort(Comparator.comparing(FundChangeSnapshot::getChange).reversed());
+		Comparator<PriceChange> byRatio = Comparator.comparingDouble(PriceChange::ratio);
+		changes.sort((gainers ? byRatio.reversed() : byRatio).thenComparing(c -> c.series().getCode()));
+
+		List<FundForUI> result = new ArrayList<>(Math.min(limit, changes.size()));
+		for (PriceChange c : changes.subList(0, Math.min(limit, changes.size()))) {
+			BigDecimal startPrice = c.series().price(c.startIndex());
+			BigDecimal change = c.series().price(c.endIndex()).subtract(startPrice)
+					.divide(startPrice, 6, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
 
-		List<FundForUI> result = new ArrayList<>(topList.size());
-		for (FundChangeSnapshot snap : topList) {
-			FundForUI dto = toDto(snap.getFund(), snap.getEndPriceRow());
-			dto.setChange(snap.getChange());
+			FundForUI dto = toDto(c.series(), c.endIndex());
+			dto.setChange(change);
 			result.add(dto);
 		}
-
 		return result;
 	}
+
+	private record PriceChange(FundPriceSeries series, int startIndex, int endIndex, double ratio) {
+	}
 }
@@ -0,0 +1,264 @@
+package backend.service.dataService;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import backend.exceptions.BadRequestException;
+import backend.exceptions.NotFoundException;
+import backend.frontendModels.FundReturnPointForUI;
+import backend.frontendModels.FundStatisticsForUI;
+import backend.frontendModels.FundStatisticsPageForUI;
+import backend.frontendModels.RequestModels.FundStatisticsRequest;
+import backend.service.dataService.entity.Fund;
+import backend.service.dataService.entity.FundPrice;
+import backend.service.dataService.entity.FundStatistics;
+import backend.service.dataService.priceStore.FundPriceSeries;
+import backend.service.dataService.priceStore.FundPriceStore;
+import backend.service.dataService.priceStore.FundPriceStoreReloadedEvent;
+import backend.service.dataService.priceStore.FundRollingStatistics;
+import backend.service.dataService.repository.FundPriceRepository;
+import backend.service.dataService.repository.FundRepository;
+import backend.service.dataService.repository.FundStatisticsRepository;
+import backend.service.dataService.repository.FundStatisticsSpecifications;
+
+/**
+ * Analytics stage run after every import: computes each fund's
+ * {@link FundRollingStatistics} from the price store's new snapshot and
+ * writes them to fund_statistics, where they are read, filtered and sorted
+ * like any other per-fund column. Daily log returns are served straight from
+ * the price store.
+ */
+@Service
+public class FundStatisticsService {
+
+	private static final String UPSERT_SQL = """
+			INSERT INTO fund_statistics (fund_id, as_of_date, return_1w, return_1m, return_3m, return_1y,
+			  return_ytd, volatility_1m, volatility_1y, max_drawdown_1y, updated_at)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now())
+			ON CONFLICT (fund_id) DO UPDATE
+			  SET as_of_date = EXCLUDED.as_of_date, return_1w = EXCLUDED.return_1w, return_1m = EXCLUDED.return_1m,
+			      return_3m = EXCLUDED.return_3m, return_1y = EXCLUDED.return_1y, return_ytd = EXCLUDED.return_ytd,
+			      volatility_1m = EXCLUDED.volatility_1m, volatility_1y = EXCLUDED.volatility_1y,
+			      max_drawdown_1y = EXCLUDED.max_drawdown_1y, updated_at = now()
+			""";
+
+	private static final List<String> SORT_KEYS = List.of("code", "name", "return1w", "return1m", "return3m",
+			"return1y", "returnYtd", "volatility1m", "volatility1y", "maxDrawdown1y");
+	private static final int MAX_PAGE_SIZE = 200;
+
+	@Autowired
+	private FundStatisticsRepository fundStatisticsRepository;
+
+	@Autowired
+	private FundRepository fundRepository;
+
+	@Autowired
+	private FundPriceRepository fundPriceRepository;
+
+	@Autowired
+	private FundPriceStore fundPriceStore;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	// ---------- Analytics stage ----------
+
+	// Ahead of the other listeners, so the data version only moves once the
+	// statistics match the new prices
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@EventListener
+	public void onPriceStoreReloaded(FundPriceStoreReloadedEvent event) {
+		refreshSafely(fundPriceStore.all());
+	}
+
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@EventListener
+	public void onFundPricesImported(FundPricesImportedEvent event) {
+		if (!fundPriceStore.isEnabled()) {
+			refreshSafely(fundPriceStore.loadDetached());
+		}
+	}
+
+	// Without the store nothing would fill an empty table until the next import
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!fundPriceStore.isEnabled() && fundStatisticsRepository.count() == 0) {
+			refreshSafely(fundPriceStore.loadDetached());
+		}
+	}
+
+	/**
+	 * Recomputes and stores the statistics of every fund that has prices, in
+	 * one transaction.
+	 */
+	public void refresh(List<FundPriceSeries> allSeries) {
+		long t0 = System.currentTimeMillis();
+		List<Object[]> rows = new ArrayList<>(allSeries.size());
+		for (FundPriceSeries series : allSeries) {
+			FundRollingStatistics s = FundRollingStatistics.of(series);
+			if (s != null) {
+				rows.add(new Object[] { series.getFundId(), s.asOfDate(), s.return1w(), s.return1m(), s.return3m(),
+						s.return1y(), s.returnYtd(), s.volatility1m(), s.volatility1y(), s.maxDrawdown1y() });
+			}
+		}
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL,
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						Object[] row = rows.get(i);
+						ps.setLong(1, (Long) row[0]);
+						ps.setObject(2, row[1]);
+						for (int c = 2; c < row.length; c++) {
+							ps.setObject(c + 1, row[c], Types.DOUBLE);
+						}
+					}
+
+					@Override
+					public int getBatchSize() {
+						return rows.size();
+					}
+				}));
+		System.out.println("STATISTICS: computed " + rows.size() + " funds in " + (System.currentTimeMillis() - t0)
+				+ " ms");
+	}
+
+	private void refreshSafely(List<FundPriceSeries> allSeries) {
+		// A failure must not fail the import or the store reload that triggered it
+		try {
+			if (allSeries != null) {
+				refresh(allSeries);
+			}
+		} catch (Exception e) {
+			System.out.println("STATISTICS: refresh failed, keeping the previous values: " + e.getMessage());
+		}
+	}
+
+	// ---------- Reads ----------
+
+	public FundStatisticsForUI getFundStatistics(String code) {
+		FundStatistics statistics = fundStatisticsRepository.findByFundCodeWithFund(code).orElse(null);
+		if (statistics == null) {
+			fundRepository.findByCode(code)
+					.orElseThrow(() -> new NotFoundException("Fund not found with code: " + code));
+			throw new NotFoundException("No statistics for fund: " + code);
+		}
+		return toDto(statistics);
+	}
+
+	public FundStatisticsPageForUI screen(FundStatisticsRequest request) {
+		if (!SORT_KEYS.contains(request.getSort())) {
+			throw new BadRequestException("sort must be one of " + SORT_KEYS + ".");
+		}
+		boolean ascending;
+		if ("asc".equalsIgnoreCase(request.getDirection())) {
+			ascending = true;
+		} else if ("desc".equalsIgnoreCase(request.getDirection())) {
+			ascending = false;
+		} else {
+			throw new BadRequestException("direction must be asc or desc.");
+		}
+		if (request.getPage() < 0 || request.getSize() < 1 || request.getSize() > MAX_PAGE_SIZE) {
+			throw new BadRequestException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE + ".");
+		}
+
+		Page<FundStatistics> page = fundStatisticsRepository.findAll(
+				FundStatisticsSpecifications.screen(request, request.getSort(), ascending),
+				PageRequest.of(request.getPage(), request.getSize()));
+
+		List<FundStatisticsForUI> funds = new ArrayList<>(page.getNumberOfElements());
+		for (FundStatistics statistics : page) {
+			funds.add(toDto(statistics));
+		}
+
+		FundStatisticsPageForUI result = new FundStatisticsPageForUI();
+		result.setFunds(funds);
+		result.setPage(page.getNumber());
+		result.setSize(page.getSize());
+		result.setTotalElements(page.getTotalElements());
+		result.setTotalPages(page.getTotalPages());
+		return result;
+	}
+
+	/** The fund's daily log returns in the optional range, oldest first. */
+	public List<FundReturnPointForUI> getDailyReturns(String code, LocalDate startDate, LocalDate endDate) {
+		LocalDate from = startDate != null ? startDate : FundService.FIRST_DAY;
+		LocalDate to = endDate != null ? endDate : FundService.LAST_DAY;
+		List<FundReturnPointForUI> points = new ArrayList<>();
+
+		FundPriceSeries series = fundPriceStore.get(code);
+		if (series != null) {
+			int end = series.floorIndex(to) + 1;
+			for (int i = series.ceilingIndex(from); i < end; i++) {
+				double r = series.logReturn(i);
+				points.add(toPoint(series.date(i), Double.isNaN(r) ? null : r));
+			}
+			return points;
+		}
+
+		Fund fund = fundRepository.findByCode(code)
+				.orElseThrow(() -> new NotFoundException("Fund not found with code: " + code));
+		List<FundPrice> prices = fundPriceRepository.findByFundAndDateBetweenOrderByDate(fund, from, to);
+		// Same arithmetic as the store, on prices in millionths
+		long previous = fundPriceRepository.findFirstByFundAndDateBeforeOrderByDateDesc(fund, from)
+				.map(fp -> micros(fp)).orElse(0L);
+		for (FundPrice fp : prices) {
+			long price = micros(fp);
+			points.add(toPoint(fp.getDate(),
+					price > 0 && previous > 0 ? Math.log((double) price / previous) : null));
+			previous = price;
+		}
+		return points;
+	}
+
+	private static long micros(FundPrice fp) {
+		return fp.getPrice().movePointRight(FundPriceSeries.PRICE_SCALE).longValue();
+	}
+
+	private static FundReturnPointForUI toPoint(LocalDate date, Double logReturn) {
+		FundReturnPointForUI point = new FundReturnPointForUI();
+		point.setDate(date);
+		point.setLogReturn(logReturn);
+		return point;
+	}
+
+	private static FundStatisticsForUI toDto(FundStatistics s) {
+		FundStatisticsForUI dto = new FundStatisticsForUI();
+		Fund fund = s.getFund();
+		dto.setCode(fund.getCode());
+		dto.setName(fund.getName());
+		if (fund.getType() != null) {
+			dto.setType(fund.getType().getName());
+		}
+		dto.setAsOfDate(s.getAsOfDate());
+		dto.setReturn1w(s.getReturn1w());
+		dto.setReturn1m(s.getReturn1m());
+		dto.setReturn3m(s.getReturn3m());
+		dto.setReturn1y(s.getReturn1y());
+		dto.setReturnYtd(s.getReturnYtd());
+		dto.setVolatility1m(s.getVolatility1m());
+		dto.setVolatility1y(s.getVolatility1y());
+		dto.setMaxDrawdown1y(s.getMaxDrawdown1y());
+		return dto;
+	}
+}
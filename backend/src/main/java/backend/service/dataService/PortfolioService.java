@@ -4,28 +4,37 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import backend.common.PricingModeEnum;
+import backend.common.SeriesResolutionEnum;
 import backend.exceptions.BadRequestException;
 import backend.exceptions.NotFoundException;
 import backend.frontendModels.FundChangeSummaryForUI;
 import backend.frontendModels.PortfolioForUI;
 import backend.frontendModels.PortfolioForUI.PortfolioFundForUI;
 import backend.frontendModels.PortfolioValuePointForUI;
+import backend.frontendModels.PortfolioValuesColumnsForUI;
 import backend.frontendModels.PortfolioValuesResponseForUI;
 import backend.frontendModels.RequestModels.CreatePortfolioRequest;
 import backend.frontendModels.RequestModels.CreatePortfolioRequest.FundAllocationRequest;
 import backend.service.dataService.entity.Fund;
+import backend.service.dataService.entity.FundLatestPrice;
 import backend.service.dataService.entity.FundPrice;
 import backend.service.dataService.entity.Portfolio;
 import backend.service.dataService.entity.PortfolioFund;
+import backend.service.dataService.priceStore.FundPriceSeries;
+import backend.service.dataService.priceStore.FundPriceStore;
+import backend.service.dataService.repository.FundLatestPriceRepository;
 import backend.service.dataService.repository.FundPriceRepository;
 import backend.service.dataService.repository.FundRepository;
 import backend.service.dataService.repository.PortfolioFundRepository;
@@ -46,6 +55,19 @@ public class PortfolioService {
 	private PortfolioFundRepository portfolioFundRepository;
 	@Autowired
 	private EntityManager entityManager;
+	@Autowired
+	private FundPriceStore fundPriceStore;
+	@Autowired
+	private FundLatestPriceRepository fundLatestPriceRepository;
+	@Autowired
+	private PortfolioValuationEngine valuationEngine;
+	@Autowired
+	private PortfolioValueSnapshotService valueSnapshotService;
+
+	// Calendar days before a portfolio's creation date whose last price may be
+	// used when the fund has none on that date
+	@Value("${app.portfolio.creation-price.max-days-back:4}")
+	private int creationPriceMaxDaysBack;
 
 	@Transactional
 	public PortfolioForUI createPortfolio(CreatePortfolioRequest request, Long userId) {
@@ -59,6 +81,8 @@ public class PortfolioService {
 			throw new BadRequestException("Total amount must be positive.");
 		}
 
+		validateCreationTime(request.getCreationTime());
+
 		BigDecimal sum = request.getAllocations().stream().map(FundAllocationRequest::getAllocationPercent)
 				.reduce(BigDecimal.ZERO, BigDecimal::add);
 
@@ -80,6 +104,7 @@ public class PortfolioService {
 
 		// 4) Save whole graph (Portfolio + its PortfolioFunds)
 		Portfolio saved = portfolioRepository.save(portfolio);
+		valueSnapshotService.rebuild(saved);
 
 		// 5) Map to UI DTO
 		return toDto(saved, request.getTotalAmount());
@@ -94,12 +119,8 @@ public class PortfolioService {
 			Fund fund = fundRepository.findByCode(alloc.getFundCode())
 					.orElseThrow(() -> new NotFoundException("Fund not found with code: " + alloc.getFundCode()));
 
-			FundPrice priceBD = fundPriceRepository
-					.findOneByCodeAndDateWithFund(fund.getCode(), request.getCreationTime())
-					.orElseThrow(() -> new NotFoundException(
-							"No price data for fund: " + fund.getCode() + " for date " + request.getCreationTime()));
-
-			BigDecimal price = priceBD.getPrice();
+			PriceOn priced = priceOn(fund, request.getCreationTime());
+			BigDecimal price = priced.price();
 			if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
 				throw new BadRequestException(
 						"Invalid price for fund: " + fund.getCode() + " for date " + request.getCreationTime());
@@ -117,23 +138,95 @@ public class PortfolioService {
 			pf.setFund(fund);
 			pf.setAllocationPercent(alloc.getAllocationPercent());
 			pf.setOwnedUnits(ownedUnits);
+			pf.setPriceDate(priced.date());
 
 			pfEntities.add(pf);
 		}
 	}
 
+	private record PriceOn(BigDecimal price, LocalDate date) {
+	}
+
+	// The price on the date. A weekend or holiday buys at the last price of the
+	// creationPriceMaxDaysBack days before it; anything older is not a price
+	// the fund traded at around that date.
+	private PriceOn priceOn(Fund fund, LocalDate date) {
+		FundPriceSeries series = fundPriceStore.get(fund.getId());
+		if (series != null) {
+			int i = series.indexOf(date);
+			if (i >= 0) {
+				return new PriceOn(series.price(i), date);
+			}
+		}
+
+		// The store may not hold the latest import yet, so misses go to the
+		// database
+		FundPrice priceBD = fundPriceRepository
+				.findFirstByFundAndDateBetweenOrderByDateDesc(fund, date.minusDays(creationPriceMaxDaysBack), date)
+				.orElseThrow(() -> new NotFoundException("No price data for fund: " + fund.getCode() + " for date "
+						+ date + " or the " + creationPriceMaxDaysBack + " days before it"));
+		return new PriceOn(priceBD.getPrice(), priceBD.getDate());
+	}
+
+	private static void validateCreationTime(LocalDate creationTime) {
+		if (creationTime == null) {
+			throw new BadRequestException("Creation time is required.");
+		}
+		if (creationTime.isAfter(LocalDate.now())) {
+			throw new BadRequestException("Creation time must not be in the future: " + creationTime);
+		}
+	}
+
+	/**
+	 * Latest price of every fund held by the portfolios, by fund id. Taken from
+	 * the price store; funds it does not hold are read from fund_latest_price
+	 * in a single query.
+	 */
+	private Map<Long, BigDecimal> latestPrices(List<Portfolio> portfolios) {
+		Set<Long> fundIds = new HashSet<>();
+		for (Portfolio p : portfolios) {
+			for (PortfolioFund pf : p.getFunds()) {
+				fundIds.add(pf.getFund().getId());
+			}
+		}
+
+		Map<Long, BigDecimal> prices = new HashMap<>();
+		List<Long> missing = new ArrayList<>();
+		for (Long fundId : fundIds) {
+			FundPriceSeries series = fundPriceStore.get(fundId);
+			if (series == null) {
+				missing.add(fundId);
+			} else if (!series.isEmpty()) {
+				prices.put(fundId, series.price(series.lastIndex()));
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			for (FundLatestPrice lp : fundLatestPriceRepository.findAllById(missing)) {
+				prices.put(lp.getFundId(), lp.getPrice());
+			}
+		}
+		return prices;
+	}
+
 	public List<PortfolioForUI> getPortfoliosByUser(Long userId) {
-		List<Portfolio> portfolios = portfolioRepository.findByUserId(userId);
+		// One query for the portfolios and their funds, at most one for prices
+		List<Portfolio> portfolios = portfolioRepository.findByUserIdWithFunds(userId);
+		Map<Long, BigDecimal> latestPrices = latestPrices(portfolios);
 		List<PortfolioForUI> result = new ArrayList<>();
 
 		for (Portfolio p : portfolios) {
-			result.add(toDto(p, p.getTotalAmount()));
+			result.add(toDto(p, p.getTotalAmount(), latestPrices));
 		}
 
 		return result;
 	}
 
 	private PortfolioForUI toDto(Portfolio portfolio, BigDecimal totalAmount) {
+		return toDto(portfolio, totalAmount, latestPrices(List.of(portfolio)));
+	}
+
+	private PortfolioForUI toDto(Portfolio portfolio, BigDecimal totalAmount, Map<Long, BigDecimal> latestPrices) {
 		PortfolioForUI dto = new PortfolioForUI();
 		dto.setId(portfolio.getId());
 		dto.setUserId(portfolio.getUserId());
@@ -152,14 +245,14 @@ public class PortfolioService {
 			fDto.setFundName(fund.getName());
 			fDto.setAllocationPercent(pf.getAllocationPercent());
 			fDto.setOwnedUnits(pf.getOwnedUnits());
+			fDto.setPriceDate(pf.getPriceDate());
 
 			BigDecimal currentValue = BigDecimal.ZERO; // Default to ZERO instead of null for safety
 
-			var latestOpt = fundPriceRepository.findFirstByFundOrderByDateDesc(fund);
+			BigDecimal latestPrice = latestPrices.get(fund.getId());
 
 			// Check if data exists
-			if (latestOpt.isPresent() && latestOpt.get().getPrice() != null && pf.getOwnedUnits() != null) {
-				BigDecimal latestPrice = latestOpt.get().getPrice();
+			if (latestPrice != null && pf.getOwnedUnits() != null) {
 				currentValue = pf.getOwnedUnits().multiply(latestPrice).setScale(2, RoundingMode.HALF_UP);
 			}
 
@@ -192,96 +285,116 @@ public class PortfolioService {
 	}
 
 	public PortfolioValuesResponseForUI getPortfolioValuesOverDateRange(Long userId, Long portfolioId,
-			LocalDate startDate, LocalDate endDate) {
+			LocalDate startDate, LocalDate endDate, SeriesResolutionEnum resolution, Integer maxPoints,
+			PricingModeEnum pricing) {
 
-		if (endDate.isBefore(startDate)) {
-			throw new BadRequestException("endDate must not be before startDate");
-		}
+		ValueSeries series = computeValueSeries(userId, portfolioId, startDate, endDate, resolution, maxPoints,
+				pricing);
 
-		// 1️⃣ Load portfolio & ensure it belongs to this user
-		Portfolio portfolio = portfolioRepository.findById(portfolioId)
-				.orElseThrow(() -> new NotFoundException("Portfolio not found: " + portfolioId));
+		List<PortfolioValuePointForUI> points = new ArrayList<>(series.kept().length);
 
-		if (!portfolio.getUserId().equals(userId)) {
-			throw new BadRequestException("Portfolio does not belong to user: " + userId);
+		for (int i : series.kept()) {
+			PortfolioValuePointForUI dto = new PortfolioValuePointForUI();
+			dto.setDate(series.date(i));
+			dto.setTotalValue(series.total(i));
+			points.add(dto);
 		}
 
-		List<PortfolioFund> pfList = portfolio.getFunds();
-		if (pfList == null || pfList.isEmpty()) {
-			PortfolioValuesResponseForUI empty = new PortfolioValuesResponseForUI();
-			empty.setPoints(Collections.emptyList());
-			empty.setFundChanges(Collections.emptyList());
-			return empty;
+		PortfolioValuesResponseForUI response = new PortfolioValuesResponseForUI();
+		response.setPoints(points);
+		response.setFundChanges(series.fundChanges());
+
+		return response;
+	}
+
+	/** Same values as {@link #getPortfolioValuesOverDateRange}, as parallel arrays. */
+	public PortfolioValuesColumnsForUI getPortfolioValueColumnsOverDateRange(Long userId, Long portfolioId,
+			LocalDate startDate, LocalDate endDate, SeriesResolutionEnum resolution, Integer maxPoints,
+			PricingModeEnum pricing) {
+
+		ValueSeries series = computeValueSeries(userId, portfolioId, startDate, endDate, resolution, maxPoints,
+				pricing);
+
+		int[] kept = series.kept();
+		LocalDate[] dates = new LocalDate[kept.length];
+		BigDecimal[] totals = new BigDecimal[kept.length];
+		for (int k = 0; k < kept.length; k++) {
+			dates[k] = series.date(kept[k]);
+			totals[k] = series.total(kept[k]);
 		}
 
-		// 2️⃣ Map<LocalDate, BigDecimal> to accumulate total value per date
-		// Use TreeMap to keep keys sorted by date
-		Map<LocalDate, BigDecimal> totalsByDate = new TreeMap<>();
-		List<FundChangeSummaryForUI> fundChanges = new ArrayList<>();
+		PortfolioValuesColumnsForUI response = new PortfolioValuesColumnsForUI();
+		response.setDates(dates);
+		response.setTotalValues(totals);
+		response.setFundChanges(series.fundChanges());
+		return response;
+	}
 
-		for (PortfolioFund pf : pfList) {
-			Fund fund = pf.getFund();
-			BigDecimal ownedUnits = pf.getOwnedUnits();
+	// Epoch days and totals in cents in date order, the indices kept by
+	// resolution / maxPoints and the per-fund changes
+	private record ValueSeries(int[] days, long[] totalCents, int[] kept, List<FundChangeSummaryForUI> fundChanges) {
 
-			if (fund == null || ownedUnits == null || ownedUnits.compareTo(BigDecimal.ZERO) <= 0) {
-				continue;
-			}
+		LocalDate date(int i) {
+			return LocalDate.ofEpochDay(days[i]);
+		}
 
-			// Get all prices for this fund in the date range
-			List<FundPrice> prices = fundPriceRepository.findByFundAndDateBetweenOrderByDate(fund, startDate, endDate);
-			if (prices == null || prices.isEmpty()) {
-				// no price data for this fund in that range -> skip for both totals & change
-				continue;
-			}
+		BigDecimal total(int i) {
+			return BigDecimal.valueOf(totalCents[i], 2);
+		}
+	}
 
-			for (FundPrice fp : prices) {
-				if (fp.getPrice() == null) {
-					continue;
-				}
+	private ValueSeries computeValueSeries(Long userId, Long portfolioId, LocalDate startDate, LocalDate endDate,
+			SeriesResolutionEnum resolution, Integer maxPoints, PricingModeEnum pricing) {
 
-				LocalDate date = fp.getDate();
-				BigDecimal contribution = ownedUnits.multiply(fp.getPrice()).setScale(2, RoundingMode.HALF_UP); // money-like
+		if (endDate.isBefore(startDate)) {
+			throw new BadRequestException("endDate must not be before startDate");
+		}
 
-				totalsByDate.merge(date, contribution, BigDecimal::add);
-			}
+		// 1️⃣ Load portfolio with its funds & ensure it belongs to this user
+		Portfolio portfolio = portfolioRepository.findByIdWithFunds(portfolioId)
+				.orElseThrow(() -> new NotFoundException("Portfolio not found: " + portfolioId));
 
-			FundPrice startFp = prices.get(0);
-			FundPrice endFp = prices.get(prices.size() - 1);
+		if (!portfolio.getUserId().equals(userId)) {
+			throw new BadRequestException("Portfolio does not belong to user: " + userId);
+		}
 
-			BigDecimal startPrice = startFp.getPrice();
-			BigDecimal endPrice = endFp.getPrice();
+		// 2️⃣ Daily totals from portfolio_daily_value, one range scan
+		PortfolioValueSnapshotService.DailyValues values = valueSnapshotService.read(portfolio, startDate, endDate,
+				pricing);
 
-			if (startPrice == null || endPrice == null || startPrice.compareTo(BigDecimal.ZERO) == 0) {
-				// can't compute change safely
+		List<PortfolioFund> held = PortfolioValueSnapshotService.heldFunds(portfolio);
+		PortfolioValuationEngine.PriceBounds bounds = valuationEngine
+				.priceBounds(PortfolioValueSnapshotService.holdingsOf(held), startDate, endDate);
+
+		List<FundChangeSummaryForUI> fundChanges = new ArrayList<>();
+		for (int h = 0; h < held.size(); h++) {
+			long first = bounds.firstPrices()[h];
+			long last = bounds.lastPrices()[h];
+			if (first == PortfolioValuationEngine.NO_PRICE || first == 0) {
+				// no price data for this fund in that range, or can't compute change safely
 				continue;
 			}
 
+			BigDecimal startPrice = BigDecimal.valueOf(first, FundPriceSeries.PRICE_SCALE);
+			BigDecimal endPrice = BigDecimal.valueOf(last, FundPriceSeries.PRICE_SCALE);
 			BigDecimal percentChange = endPrice.subtract(startPrice) // Δ = end - start
 					.divide(startPrice, 6, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)); // in %
 
 			FundChangeSummaryForUI changeDto = new FundChangeSummaryForUI();
-			changeDto.setFundCode(fund.getCode());
-			changeDto.setAllocationPercent(pf.getAllocationPercent());
+			changeDto.setFundCode(held.get(h).getFund().getCode());
+			changeDto.setAllocationPercent(held.get(h).getAllocationPercent());
 			changeDto.setPercentChange(percentChange);
 
 			fundChanges.add(changeDto);
 		}
 
-		// 3️⃣ Convert the map into a sorted list of DTOs
-		List<PortfolioValuePointForUI> points = new ArrayList<>();
+		// 3️⃣ The points kept by the requested resolution / maxPoints
+		int[] days = values.days();
+		long[] cents = values.totalCents();
+		int[] kept = SeriesDownsampler.select(days.length, i -> days[i], i -> cents[i] / 100.0, resolution,
+				maxPoints);
 
-		for (Map.Entry<LocalDate, BigDecimal> entry : totalsByDate.entrySet()) {
-			PortfolioValuePointForUI dto = new PortfolioValuePointForUI();
-			dto.setDate(entry.getKey());
-			dto.setTotalValue(entry.getValue());
-			points.add(dto);
-		}
-
-		PortfolioValuesResponseForUI response = new PortfolioValuesResponseForUI();
-		response.setPoints(points);
-		response.setFundChanges(fundChanges);
-
-		return response;
+		return new ValueSeries(days, cents, kept, fundChanges);
 	}
 
 	@Transactional
@@ -296,6 +409,8 @@ public class PortfolioService {
 			throw new BadRequestException("Portfolio does not belong to user: " + userId);
 		}
 
+		validateCreationTime(request.getCreationTime());
+
 		// Update basic fields
 		portfolio.setName(request.getName()); // new name
 		portfolio.setTotalAmount(request.getTotalAmount()); // new investment amount
@@ -318,6 +433,7 @@ public class PortfolioService {
 		}
 
 		Portfolio saved = portfolioRepository.save(portfolio);
+		valueSnapshotService.rebuild(saved);
 
 		// Map to UI DTO (reuse your mapping logic)
 		return toDto(saved, request.getTotalAmount());
@@ -0,0 +1,363 @@
+package backend.service.dataService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import backend.service.dataService.priceStore.FundPriceSeries;
+import backend.service.dataService.priceStore.FundPriceStore;
+
+/**
+ * Daily value of a set of fund holdings over a date range. Each holding adds
+ * units x price, rounded half up to cents, and the totals are built in one
+ * merge pass over the holdings' price streams, each sorted by date, so no
+ * BigDecimal or map entry is created per fund and day. Every day on which
+ * any holding has a price gets two totals: one over the holdings priced that
+ * day, and an as-of one where each holding without a price carries its last
+ * known price forward, including one from before the range.
+ * <p>
+ * Prices come from the price store, or for funds it does not hold from one
+ * query over all of them ordered by (fund, date).
+ */
+@Component
+public class PortfolioValuationEngine {
+
+	// The range, plus each fund's last price before it, parameters: fund ids,
+	// start, end, fund ids, start
+	private static final String PRICES_SQL = """
+			SELECT fund_id, date - DATE '1970-01-01', (price * 1000000)::bigint
+			FROM fund_price_history
+			WHERE fund_id = ANY(?) AND date BETWEEN ? AND ?
+			UNION ALL
+			SELECT f.id, p.day, p.price
+			FROM unnest(?::bigint[]) AS f(id)
+			CROSS JOIN LATERAL (SELECT date - DATE '1970-01-01' AS day, (price * 1000000)::bigint AS price
+			  FROM fund_price_history WHERE fund_id = f.id AND date < ? ORDER BY date DESC LIMIT 1) p
+			ORDER BY 1, 2
+			""";
+
+	// Two index probes per fund, parameters: start, end, start, end, fund ids
+	private static final String BOUNDS_SQL = """
+			SELECT f.id,
+			  (SELECT (price * 1000000)::bigint FROM fund_price_history
+			   WHERE fund_id = f.id AND date BETWEEN ? AND ? ORDER BY date LIMIT 1),
+			  (SELECT (price * 1000000)::bigint FROM fund_price_history
+			   WHERE fund_id = f.id AND date BETWEEN ? AND ? ORDER BY date DESC LIMIT 1)
+			FROM unnest(?::bigint[]) AS f(id)
+			""";
+
+	private static final int CENTS_SCALE = 2;
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+			10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L };
+
+	/** Marks a holding without any price in the range. */
+	public static final long NO_PRICE = Long.MIN_VALUE;
+
+	public record Holding(long fundId, BigDecimal units) {
+	}
+
+	/**
+	 * @param days        ascending epoch days that have at least one price
+	 * @param totalCents  portfolio value of each of those days, in cents, over
+	 *                    the holdings priced that day
+	 * @param asOfCents   the same with every holding at its last price on or
+	 *                    before the day
+	 * @param firstPrices per holding, its first price in the range in
+	 *                    millionths, or NO_PRICE
+	 * @param lastPrices  per holding, its last price in the range, or NO_PRICE
+	 */
+	public record Valuation(int[] days, long[] totalCents, long[] asOfCents, long[] firstPrices,
+			long[] lastPrices) {
+	}
+
+	/** First and last price of each holding in a range, as in {@link Valuation}. */
+	public record PriceBounds(long[] firstPrices, long[] lastPrices) {
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final FundPriceStore fundPriceStore;
+
+	public PortfolioValuationEngine(JdbcTemplate jdbcTemplate, FundPriceStore fundPriceStore) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.fundPriceStore = fundPriceStore;
+	}
+
+	public Valuation value(List<Holding> holdings, LocalDate startDate, LocalDate endDate) {
+		int n = holdings.size();
+		PriceStream[] streams = new PriceStream[n];
+		Map<Long, int[]> unstored = new HashMap<>();
+		for (int h = 0; h < n; h++) {
+			FundPriceSeries series = fundPriceStore.get(holdings.get(h).fundId());
+			if (series != null) {
+				streams[h] = PriceStream.of(series, startDate, endDate);
+			} else {
+				unstored.merge(holdings.get(h).fundId(), new int[] { h }, PortfolioValuationEngine::append);
+			}
+		}
+
+		// Everything else from one result set, one fund after the other
+		if (!unstored.isEmpty()) {
+			Long[] fundIds = unstored.keySet().toArray(new Long[0]);
+			int startDay = (int) startDate.toEpochDay();
+			Map<Long, PriceStream> loaded = new HashMap<>();
+			jdbcTemplate.query(PRICES_SQL, (PreparedStatement ps) -> {
+				ps.setArray(1, ps.getConnection().createArrayOf("bigint", fundIds));
+				ps.setDate(2, Date.valueOf(startDate));
+				ps.setDate(3, Date.valueOf(endDate));
+				ps.setArray(4, ps.getConnection().createArrayOf("bigint", fundIds));
+				ps.setDate(5, Date.valueOf(startDate));
+			}, rs -> {
+				loaded.computeIfAbsent(rs.getLong(1), id -> new PriceStream()).add(rs.getInt(2), rs.getLong(3),
+						startDay);
+			});
+			for (Map.Entry<Long, int[]> entry : unstored.entrySet()) {
+				PriceStream stream = loaded.getOrDefault(entry.getKey(), PriceStream.EMPTY);
+				for (int h : entry.getValue()) {
+					streams[h] = stream.copy();
+				}
+			}
+		}
+
+		return merge(holdings, streams);
+	}
+
+	/**
+	 * Walks all streams in date order at once. A holding's contribution is
+	 * kept until its next price, so the as-of total moves by the difference
+	 * instead of being summed again every day.
+	 */
+	private static Valuation merge(List<Holding> holdings, PriceStream[] streams) {
+		int n = streams.length;
+		Contribution[] contributions = new Contribution[n];
+		long[] firstPrices = new long[n];
+		long[] lastPrices = new long[n];
+		long[] current = new long[n];
+		long asOf = 0;
+		int capacity = 16;
+		for (int h = 0; h < n; h++) {
+			contributions[h] = new Contribution(holdings.get(h).units());
+			PriceStream s = streams[h];
+			firstPrices[h] = s.hasNext() ? s.price() : NO_PRICE;
+			lastPrices[h] = s.hasNext() ? s.lastPrice() : NO_PRICE;
+			if (s.seed != NO_PRICE) {
+				current[h] = contributions[h].cents(s.seed);
+				asOf += current[h];
+			}
+			capacity = Math.max(capacity, s.remaining());
+		}
+
+		int[] days = new int[capacity];
+		long[] totals = new long[capacity];
+		long[] asOfTotals = new long[capacity];
+		int count = 0;
+		while (true) {
+			int day = Integer.MAX_VALUE;
+			for (PriceStream s : streams) {
+				if (s.hasNext() && s.day() < day) {
+					day = s.day();
+				}
+			}
+			if (day == Integer.MAX_VALUE) {
+				break;
+			}
+
+			long total = 0;
+			for (int h = 0; h < n; h++) {
+				PriceStream s = streams[h];
+				if (s.hasNext() && s.day() == day) {
+					long cents = contributions[h].cents(s.price());
+					total += cents;
+					asOf += cents - current[h];
+					current[h] = cents;
+					s.pos++;
+				}
+			}
+
+			if (count == days.length) {
+				days = Arrays.copyOf(days, count * 2);
+				totals = Arrays.copyOf(totals, count * 2);
+				asOfTotals = Arrays.copyOf(asOfTotals, count * 2);
+			}
+			days[count] = day;
+			totals[count] = total;
+			asOfTotals[count] = asOf;
+			count++;
+		}
+
+		return new Valuation(Arrays.copyOf(days, count), Arrays.copyOf(totals, count),
+				Arrays.copyOf(asOfTotals, count), firstPrices, lastPrices);
+	}
+
+	/**
+	 * Only the first and last price of each holding in the range, without
+	 * walking the days in between.
+	 */
+	public PriceBounds priceBounds(List<Holding> holdings, LocalDate startDate, LocalDate endDate) {
+		int n = holdings.size();
+		long[] firstPrices = new long[n];
+		long[] lastPrices = new long[n];
+		Arrays.fill(firstPrices, NO_PRICE);
+		Arrays.fill(lastPrices, NO_PRICE);
+
+		Map<Long, int[]> unstored = new HashMap<>();
+		for (int h = 0; h < n; h++) {
+			FundPriceSeries series = fundPriceStore.get(holdings.get(h).fundId());
+			if (series == null) {
+				unstored.merge(holdings.get(h).fundId(), new int[] { h }, PortfolioValuationEngine::append);
+				continue;
+			}
+			int from = series.ceilingIndex(startDate);
+			int to = series.floorIndex(endDate);
+			if (from <= to) {
+				firstPrices[h] = series.priceMicros(from);
+				lastPrices[h] = series.priceMicros(to);
+			}
+		}
+
+		if (!unstored.isEmpty()) {
+			Long[] fundIds = unstored.keySet().toArray(new Long[0]);
+			jdbcTemplate.query(BOUNDS_SQL, (PreparedStatement ps) -> {
+				ps.setDate(1, Date.valueOf(startDate));
+				ps.setDate(2, Date.valueOf(endDate));
+				ps.setDate(3, Date.valueOf(startDate));
+				ps.setDate(4, Date.valueOf(endDate));
+				ps.setArray(5, ps.getConnection().createArrayOf("bigint", fundIds));
+			}, rs -> {
+				long first = rs.getLong(2);
+				if (rs.wasNull()) {
+					return;
+				}
+				long last = rs.getLong(3);
+				for (int h : unstored.get(rs.getLong(1))) {
+					firstPrices[h] = first;
+					lastPrices[h] = last;
+				}
+			});
+		}
+
+		return new PriceBounds(firstPrices, lastPrices);
+	}
+
+	private static int[] append(int[] a, int[] b) {
+		int[] joined = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, joined, a.length, b.length);
+		return joined;
+	}
+
+	/**
+	 * units x price in cents, rounded half up like
+	 * units.multiply(price).setScale(2, HALF_UP). Exact long arithmetic while
+	 * the product fits, BigDecimal otherwise.
+	 */
+	static final class Contribution {
+
+		private final BigDecimal units;
+		private final long unscaledUnits;
+		private final long divisor;
+
+		Contribution(BigDecimal units) {
+			this.units = units;
+			int shift = units.scale() + FundPriceSeries.PRICE_SCALE - CENTS_SCALE;
+			boolean exact = units.signum() >= 0 && shift >= 0 && shift < POWERS_OF_TEN.length
+					&& units.unscaledValue().bitLength() < Long.SIZE;
+			this.unscaledUnits = exact ? units.unscaledValue().longValue() : -1;
+			this.divisor = exact ? POWERS_OF_TEN[shift] : 0;
+		}
+
+		long cents(long priceMicros) {
+			if (divisor > 0 && priceMicros >= 0 && Math.multiplyHigh(unscaledUnits, priceMicros) == 0) {
+				long product = unscaledUnits * priceMicros;
+				long half = divisor / 2;
+				if (product >= 0 && product <= Long.MAX_VALUE - half) {
+					return (product + half) / divisor;
+				}
+			}
+			return units.multiply(BigDecimal.valueOf(priceMicros, FundPriceSeries.PRICE_SCALE))
+					.setScale(CENTS_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+		}
+	}
+
+	/**
+	 * One fund's prices in the range, in date order, and its last price before
+	 * the range. Either a slice of a stored series or rows read from the
+	 * database.
+	 */
+	private static final class PriceStream {
+
+		static final PriceStream EMPTY = new PriceStream();
+
+		private FundPriceSeries series;
+		private int[] days = new int[0];
+		private long[] prices = new long[0];
+		int pos;
+		private int end;
+		long seed = NO_PRICE;
+
+		static PriceStream of(FundPriceSeries series, LocalDate startDate, LocalDate endDate) {
+			PriceStream s = new PriceStream();
+			s.series = series;
+			s.pos = series.ceilingIndex(startDate);
+			s.end = Math.max(s.pos, series.floorIndex(endDate) + 1);
+			if (s.pos > 0) {
+				s.seed = series.priceMicros(s.pos - 1);
+			}
+			return s;
+		}
+
+		// Rows must arrive in date order, the one before startDay first
+		void add(int day, long price, int startDay) {
+			if (day < startDay) {
+				seed = price;
+				return;
+			}
+			if (end == days.length) {
+				days = Arrays.copyOf(days, Math.max(16, end * 2));
+				prices = Arrays.copyOf(prices, days.length);
+			}
+			days[end] = day;
+			prices[end] = price;
+			end++;
+		}
+
+		// Shares the prices, with a position of its own
+		PriceStream copy() {
+			PriceStream s = new PriceStream();
+			s.series = series;
+			s.days = days;
+			s.prices = prices;
+			s.pos = pos;
+			s.end = end;
+			s.seed = seed;
+			return s;
+		}
+
+		boolean hasNext() {
+			return pos < end;
+		}
+
+		int remaining() {
+			return end - pos;
+		}
+
+		int day() {
+			return series != null ? (int) series.epochDay(pos) : days[pos];
+		}
+
+		long price() {
+			return series != null ? series.priceMicros(pos) : prices[pos];
+		}
+
+		long lastPrice() {
+			return series != null ? series.priceMicros(end - 1) : prices[end - 1];
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package backend.service.dataService;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import backend.common.PricingModeEnum;
+import backend.service.dataService.entity.Portfolio;
+import backend.service.dataService.entity.PortfolioFund;
+import backend.service.dataService.priceStore.FundPriceStore;
+import backend.service.dataService.priceStore.FundPriceStoreReloadedEvent;
+import backend.service.dataService.repository.PortfolioRepository;
+
+/**
+ * Keeps portfolio_daily_value in step with the holdings and the prices: a
+ * portfolio's rows are rebuilt when it is saved, and after every import each
+ * portfolio is recomputed from shortly before its last stored day, so value
+ * series are read back instead of valued from raw prices on every request.
+ * <p>
+ * Prices that arrive more than app.portfolio.values.recompute-days after the
+ * last stored day of a portfolio holding the fund are only picked up when the
+ * portfolio is saved again.
+ */
+@Service
+public class PortfolioValueSnapshotService {
+
+	// Each portfolio's last stored day, and its first one without an as-of
+	// value (rows written before that column existed)
+	private static final String LAST_DAYS_SQL = """
+			SELECT p.id, (SELECT max(date) FROM portfolio_daily_value WHERE portfolio_id = p.id),
+			  (SELECT min(date) FROM portfolio_daily_value WHERE portfolio_id = p.id AND total_value_as_of IS NULL)
+			FROM portfolios p
+			""";
+
+	private static final String DELETE_FROM_SQL = "DELETE FROM portfolio_daily_value WHERE portfolio_id = ? AND date >= ?";
+
+	// The conflict only happens when a save and an import write the same
+	// portfolio at once
+	private static final String INSERT_SQL = """
+			INSERT INTO portfolio_daily_value (portfolio_id, date, total_value, total_value_as_of)
+			VALUES (?, ?, ?, ?)
+			ON CONFLICT (portfolio_id, date) DO UPDATE
+			  SET total_value = EXCLUDED.total_value, total_value_as_of = EXCLUDED.total_value_as_of
+			""";
+
+	// %s is the value column of the pricing mode
+	private static final String RANGE_SQL = """
+			SELECT date - DATE '1970-01-01', (%s * 100)::bigint
+			FROM portfolio_daily_value
+			WHERE portfolio_id = ? AND date BETWEEN ? AND ?
+			ORDER BY date
+			""";
+
+	/** Ascending epoch days and the portfolio's value on each, in cents. */
+	public record DailyValues(int[] days, long[] totalCents) {
+	}
+
+	// Days before the last stored one recomputed after each import, for prices
+	// published late
+	@Value("${app.portfolio.values.recompute-days:31}")
+	private int recomputeDays;
+
+	@Autowired
+	private PortfolioValuationEngine valuationEngine;
+
+	@Autowired
+	private FundPriceStore fundPriceStore;
+
+	@Autowired
+	private PortfolioRepository portfolioRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	// ---------- Writes ----------
+
+	@EventListener
+	public void onPriceStoreReloaded(FundPriceStoreReloadedEvent event) {
+		refreshSafely();
+	}
+
+	@EventListener
+	public void onFundPricesImported(FundPricesImportedEvent event) {
+		if (!fundPriceStore.isEnabled()) {
+			refreshSafely();
+		}
+	}
+
+	// With the store, its first load does this
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!fundPriceStore.isEnabled()) {
+			refreshSafely();
+		}
+	}
+
+	/**
+	 * Replaces every stored value of the portfolio. Runs in the caller's
+	 * transaction, so the rows commit with the holdings they were computed from,
+	 * and takes the portfolio's row lock like {@link #refreshAll}.
+	 */
+	public void rebuild(Portfolio portfolio) {
+		Portfolio locked = portfolioRepository.findByIdWithFundsForUpdate(portfolio.getId()).orElse(portfolio);
+		write(locked, FundService.FIRST_DAY);
+	}
+
+	/**
+	 * Extends every portfolio up to the latest prices. Each portfolio is
+	 * re-read under its row lock and written in its own transaction, so a save
+	 * running at the same time is never overwritten with the old holdings, and
+	 * a portfolio deleted meanwhile is skipped instead of failing the others.
+	 * Portfolios without stored values are built in full.
+	 */
+	public void refreshAll() {
+		long t0 = System.currentTimeMillis();
+		Map<Long, LocalDate> refreshFrom = new HashMap<>();
+		jdbcTemplate.query(LAST_DAYS_SQL, rs -> {
+			Date last = rs.getDate(2);
+			Date missingAsOf = rs.getDate(3);
+			LocalDate from = last != null ? last.toLocalDate().minusDays(recomputeDays) : null;
+			if (missingAsOf != null && missingAsOf.toLocalDate().isBefore(from)) {
+				from = missingAsOf.toLocalDate();
+			}
+			refreshFrom.put(rs.getLong(1), from);
+		});
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		long rows = 0;
+		int refreshed = 0;
+		for (Map.Entry<Long, LocalDate> entry : refreshFrom.entrySet()) {
+			LocalDate from = entry.getValue() != null ? entry.getValue() : FundService.FIRST_DAY;
+			try {
+				Integer written = transaction.execute(status -> portfolioRepository
+						.findByIdWithFundsForUpdate(entry.getKey()).map(portfolio -> write(portfolio, from)).orElse(null));
+				if (written != null) {
+					rows += written;
+					refreshed++;
+				}
+			} catch (Exception e) {
+				System.out.println("PORTFOLIO VALUES: refresh of portfolio " + entry.getKey()
+						+ " failed, keeping its previous values: " + e.getMessage());
+			}
+		}
+		System.out.println("PORTFOLIO VALUES: refreshed " + refreshed + " portfolios, " + rows + " days in "
+				+ (System.currentTimeMillis() - t0) + " ms");
+	}
+
+	private void refreshSafely() {
+		// A failure must not fail the import or the store reload that triggered it
+		try {
+			refreshAll();
+		} catch (Exception e) {
+			System.out.println("PORTFOLIO VALUES: refresh failed, keeping the previous values: " + e.getMessage());
+		}
+	}
+
+	private int write(Portfolio portfolio, LocalDate from) {
+		PortfolioValuationEngine.Valuation valuation = valuationEngine.value(holdingsOf(heldFunds(portfolio)), from,
+				FundService.LAST_DAY);
+		int[] days = valuation.days();
+		long[] cents = valuation.totalCents();
+		long[] asOfCents = valuation.asOfCents();
+
+		jdbcTemplate.update(DELETE_FROM_SQL, portfolio.getId(), from);
+		jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ps.setLong(1, portfolio.getId());
+				ps.setObject(2, LocalDate.ofEpochDay(days[i]));
+				ps.setBigDecimal(3, BigDecimal.valueOf(cents[i], 2));
+				ps.setBigDecimal(4, BigDecimal.valueOf(asOfCents[i], 2));
+			}
+
+			@Override
+			public int getBatchSize() {
+				return days.length;
+			}
+		});
+		return days.length;
+	}
+
+	// ---------- Reads ----------
+
+	/**
+	 * The portfolio's values in the range from portfolio_daily_value. Valued
+	 * from prices instead when nothing is stored there, e.g. before the first
+	 * refresh, or an as-of value is missing.
+	 */
+	public DailyValues read(Portfolio portfolio, LocalDate startDate, LocalDate endDate, PricingModeEnum pricing) {
+		boolean asOf = pricing == PricingModeEnum.AS_OF;
+		int[][] days = { new int[64] };
+		long[][] cents = { new long[64] };
+		int[] count = { 0 };
+		boolean[] missing = { false };
+		String sql = String.format(RANGE_SQL, asOf ? "total_value_as_of" : "total_value");
+		jdbcTemplate.query(sql, (PreparedStatement ps) -> {
+			ps.setLong(1, portfolio.getId());
+			ps.setDate(2, Date.valueOf(startDate));
+			ps.setDate(3, Date.valueOf(endDate));
+		}, rs -> {
+			int k = count[0]++;
+			if (k == days[0].length) {
+				days[0] = Arrays.copyOf(days[0], k * 2);
+				cents[0] = Arrays.copyOf(cents[0], k * 2);
+			}
+			days[0][k] = rs.getInt(1);
+			cents[0][k] = rs.getLong(2);
+			missing[0] |= rs.wasNull();
+		});
+
+		if (count[0] > 0 && !missing[0]) {
+			return new DailyValues(Arrays.copyOf(days[0], count[0]), Arrays.copyOf(cents[0], count[0]));
+		}
+		PortfolioValuationEngine.Valuation valuation = valuationEngine.value(holdingsOf(heldFunds(portfolio)),
+				startDate, endDate);
+		return new DailyValues(valuation.days(), asOf ? valuation.asOfCents() : valuation.totalCents());
+	}
+
+	/** The portfolio's funds that count towards its value: positive units of a known fund. */
+	static List<PortfolioFund> heldFunds(Portfolio portfolio) {
+		List<PortfolioFund> held = new ArrayList<>();
+		if (portfolio.getFunds() == null) {
+			return held;
+		}
+		for (PortfolioFund pf : portfolio.getFunds()) {
+			if (pf.getFund() != null && pf.getOwnedUnits() != null && pf.getOwnedUnits().compareTo(BigDecimal.ZERO) > 0) {
+				held.add(pf);
+			}
+		}
+		return held;
+	}
+
+	static List<PortfolioValuationEngine.Holding> holdingsOf(List<PortfolioFund> held) {
+		List<PortfolioValuationEngine.Holding> holdings = new ArrayList<>(held.size());
+		for (PortfolioFund pf : held) {
+			holdings.add(new PortfolioValuationEngine.Holding(pf.getFund().getId(), pf.getOwnedUnits()));
+		}
+		return holdings;
+	}
+}
@@ -0,0 +1,121 @@
+package backend.service.dataService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+
+import backend.common.SeriesResolutionEnum;
+import backend.exceptions.BadRequestException;
+
+/**
+ * Picks the points of a date-ordered series worth sending to a chart. A
+ * coarser resolution keeps the last point of every week or month (the period
+ * close); maxPoints then thins the rest with Largest-Triangle-Three-Buckets,
+ * which keeps the peaks and dips a line chart would show.
+ * <p>
+ * Works on indices so callers only build response objects for the points
+ * that are kept.
+ */
+public final class SeriesDownsampler {
+
+	private static final int MIN_POINTS = 3;
+
+	private SeriesDownsampler() {
+	}
+
+	/**
+	 * @param size       number of points, ordered by date
+	 * @param epochDay   date of point i as epoch day
+	 * @param value      charted value of point i
+	 * @param resolution null or DAILY keeps every point
+	 * @param maxPoints  null for no limit
+	 * @return ascending indices of the points to keep
+	 */
+	public static int[] select(int size, IntToLongFunction epochDay, IntToDoubleFunction value,
+			SeriesResolutionEnum resolution, Integer maxPoints) {
+
+		if (maxPoints != null && maxPoints < MIN_POINTS) {
+			throw new BadRequestException("maxPoints must be at least " + MIN_POINTS + ".");
+		}
+
+		int[] kept = periodCloses(size, epochDay, resolution);
+		if (maxPoints != null && kept.length > maxPoints) {
+			kept = largestTriangleThreeBuckets(kept, epochDay, value, maxPoints);
+		}
+		return kept;
+	}
+
+	private static int[] periodCloses(int size, IntToLongFunction epochDay, SeriesResolutionEnum resolution) {
+		int[] kept = new int[size];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (resolution == null || resolution == SeriesResolutionEnum.DAILY || i == size - 1
+					|| period(epochDay.applyAsLong(i), resolution) != period(epochDay.applyAsLong(i + 1), resolution)) {
+				kept[count++] = i;
+			}
+		}
+		return count == size ? kept : Arrays.copyOf(kept, count);
+	}
+
+	private static long period(long epochDay, SeriesResolutionEnum resolution) {
+		if (resolution == SeriesResolutionEnum.WEEKLY) {
+			// 1970-01-01 was a Thursday, +3 makes weeks start on Monday
+			return Math.floorDiv(epochDay + 3, 7);
+		}
+		LocalDate date = LocalDate.ofEpochDay(epochDay);
+		return date.getYear() * 12L + date.getMonthValue();
+	}
+
+	private static int[] largestTriangleThreeBuckets(int[] points, IntToLongFunction epochDay,
+			IntToDoubleFunction value, int threshold) {
+
+		int n = points.length;
+		int[] kept = new int[threshold];
+		int count = 0;
+
+		// First and last points are always kept, the rest are split into
+		// threshold - 2 buckets that each keep one point
+		double bucketSize = (double) (n - 2) / (threshold - 2);
+		int a = 0;
+		kept[count++] = points[0];
+
+		for (int bucket = 0; bucket < threshold - 2; bucket++) {
+			// Average of the next bucket is the third corner of the triangle
+			int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+			int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+			double avgX = 0;
+			double avgY = 0;
+			for (int j = nextStart; j < nextEnd; j++) {
+				avgX += epochDay.applyAsLong(points[j]);
+				avgY += value.applyAsDouble(points[j]);
+			}
+			int nextCount = Math.max(nextEnd - nextStart, 1);
+			avgX /= nextCount;
+			avgY /= nextCount;
+
+			int start = (int) Math.floor(bucket * bucketSize) + 1;
+			int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+			double ax = epochDay.applyAsLong(points[a]);
+			double ay = value.applyAsDouble(points[a]);
+
+			double maxArea = -1;
+			int chosen = start;
+			for (int j = start; j < end; j++) {
+				double x = epochDay.applyAsLong(points[j]);
+				double y = value.applyAsDouble(points[j]);
+				double area = Math.abs((ax - avgX) * (y - ay) - (ax - x) * (avgY - ay));
+				if (area > maxArea) {
+					maxArea = area;
+					chosen = j;
+				}
+			}
+
+			kept[count++] = points[chosen];
+			a = chosen;
+		}
+
+		kept[count++] = points[n - 1];
+		return kept;
+	}
+}
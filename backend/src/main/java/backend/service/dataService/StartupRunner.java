@@ -6,7 +6,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
-import backend.common.FundTypeEnum;
+import backend.service.dataService.repository.FundLatestPriceRepository;
 
 @Component
 public class StartupRunner implements CommandLineRunner {
@@ -22,6 +22,9 @@ public class StartupRunner implements CommandLineRunner {
 	@Autowired
 	javax.sql.DataSource dataSource;
 
+	@Autowired
+	private FundLatestPriceRepository fundLatestPriceRepository;
+
 	public StartupRunner(FundDataImportService importService) {
 		this.importService = importService;
 	}
@@ -43,34 +46,22 @@ public class StartupRunner implements CommandLineRunner {
 	public void run(String... args) throws Exception {
 
 		logDbInfo();
+
+		// Databases loaded before fund_latest_price existed get it filled once
+		if (fundLatestPriceRepository.count() == 0) {
+			int filled = fundLatestPriceRepository.rebuildFromHistory();
+			System.out.println("fund_latest_price filled for " + filled + " funds");
+		}
+
 		if (!importEnabled) {
 			System.out.println("Import Data disabled.");
 			return;
 		}
 
-//		new Thread(() -> {
-		try {
-			if (importEnabled) {
-				System.out.println("Starting import...");
-				long t0 = System.currentTimeMillis();
-				System.out.println(
-						"IMPORT: about to call importFundsFromExcel, thread=" + Thread.currentThread().getName());
-
-				importService.importFundsFromExcel(FundTypeEnum.INVESTMENT.getName());
-
-				System.out.println(
-						"IMPORT: returned from importFundsFromExcel in " + (System.currentTimeMillis() - t0) + " ms");
-				System.out.println("Import finished.");
-			}
-			System.out.println("Funds imported successfully!");
-		} catch (Throwable t) { // <--- CHANGE 'Exception' TO 'Throwable'
-			// This catches OutOfMemoryError, NoClassDefFoundError, etc.
-			System.out.println("CRITICAL FAILURE in Background Thread!");
-			System.out.println("Error type: " + t.getClass().getName());
-			System.out.println("Message: " + t.getMessage());
-			t.printStackTrace();
-		}
-//		}).start();
+		// The import runs as a background job, the app serves requests meanwhile.
+		// Progress: GET /api/admin/import/status
+		System.out.println("Starting import in background...");
+		importService.startImportInBackground();
 
 	}
 }
@@ -0,0 +1,32 @@
+package backend.service.dataService.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Last price date of a fund that a successful import run has fully loaded.
+ * Incremental imports skip rows at or before it.
+ */
+@Entity
+@Table(name = "fund_import_watermarks")
+@Getter
+@Setter
+public class FundImportWatermark {
+
+	@Id
+	@Column(name = "fund_id")
+	private Long fundId;
+
+	@Column(name = "loaded_through", nullable = false)
+	private LocalDate loadedThrough;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,61 @@
+package backend.service.dataService.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Copy of each fund's most recent fund_price_history row. Kept up to date by
+ * the importer in the same transaction as the rows it inserts, so the funds
+ * list reads one row per fund instead of searching the whole history.
+ */
+@Entity
+@Table(name = "fund_latest_price", indexes = {
+		// Screener range filters and sort orders, fund_id is the sort tie-break
+		@Index(name = "index_fund_latest_price_price", columnList = "price, fund_id"),
+		@Index(name = "index_fund_latest_price_total_value", columnList = "total_value, fund_id"),
+		@Index(name = "index_fund_latest_price_investors", columnList = "investor_count, fund_id"),
+		@Index(name = "index_fund_latest_price_units", columnList = "circulating_units, fund_id") })
+@Getter
+@Setter
+public class FundLatestPrice {
+
+	@Id
+	@Column(name = "fund_id")
+	private Long fundId;
+
+	@OneToOne(fetch = FetchType.LAZY)
+	@MapsId
+	@JoinColumn(name = "fund_id")
+	private Fund fund;
+
+	@Column(nullable = false)
+	private LocalDate date;
+
+	@Column(nullable = false, precision = 18, scale = 6)
+	private BigDecimal price;
+
+	@Column(name = "circulating_units", precision = 18, scale = 2)
+	private BigDecimal circulatingUnits;
+
+	@Column(name = "investor_count")
+	private Integer investorCount;
+
+	@Column(name = "total_value", precision = 18, scale = 2)
+	private BigDecimal totalValue;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,67 @@
+package backend.service.dataService.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Trailing returns, volatility and max drawdown of each fund as of its latest
+ * price, in percent. Recomputed for every fund after each import, so clients
+ * read, filter and sort one row per fund instead of diffing histories. See
+ * {@link backend.service.dataService.priceStore.FundRollingStatistics}.
+ */
+@Entity
+@Table(name = "fund_statistics")
+@Getter
+@Setter
+public class FundStatistics {
+
+	@Id
+	@Column(name = "fund_id")
+	private Long fundId;
+
+	@OneToOne(fetch = FetchType.LAZY)
+	@MapsId
+	@JoinColumn(name = "fund_id")
+	private Fund fund;
+
+	@Column(name = "as_of_date", nullable = false)
+	private LocalDate asOfDate;
+
+	@Column(name = "return_1w")
+	private Double return1w;
+
+	@Column(name = "return_1m")
+	private Double return1m;
+
+	@Column(name = "return_3m")
+	private Double return3m;
+
+	@Column(name = "return_1y")
+	private Double return1y;
+
+	@Column(name = "return_ytd")
+	private Double returnYtd;
+
+	@Column(name = "volatility_1m")
+	private Double volatility1m;
+
+	@Column(name = "volatility_1y")
+	private Double volatility1y;
+
+	@Column(name = "max_drawdown_1y")
+	private Double maxDrawdown1y;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,60 @@
+package backend.service.dataService.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Progress of one import source: everything up to (sheet_index, row_num) is
+ * committed. A RUNNING checkpoint of an unchanged file is resumed on the next
+ * run instead of starting from the first row.
+ */
+@Entity
+@Table(name = "import_checkpoints")
+@Getter
+@Setter
+public class ImportCheckpoint {
+
+	public static final String RUNNING = "RUNNING";
+	public static final String COMPLETED = "COMPLETED";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	// Resource description, e.g. "class path resource [FundData.xlsx]"
+	@Column(nullable = false, unique = true, length = 1000)
+	private String source;
+
+	// Size and modification time of the file the positions refer to
+	@Column(name = "source_size")
+	private Long sourceSize;
+
+	@Column(name = "source_last_modified")
+	private Long sourceLastModified;
+
+	@Column(name = "sheet_index", nullable = false)
+	private int sheetIndex = -1;
+
+	@Column(name = "row_num", nullable = false)
+	private int rowNum = -1;
+
+	@Column(name = "rows_committed", nullable = false)
+	private long rowsCommitted;
+
+	@Column(name = "batches_committed", nullable = false)
+	private long batchesCommitted;
+
+	@Column(nullable = false, length = 20)
+	private String status = RUNNING;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,54 @@
+package backend.service.dataService.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Total value of a portfolio's holdings on one day, for every day any of its
+ * funds has a price. Written by
+ * {@link backend.service.dataService.PortfolioValueSnapshotService}; the
+ * (portfolio_id, date) index serves a value series as one range scan.
+ */
+@Entity
+@Table(name = "portfolio_daily_value", uniqueConstraints = {
+		@UniqueConstraint(columnNames = { "portfolio_id", "date" }) })
+@Getter
+@Setter
+public class PortfolioDailyValue {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	// Rows go with their portfolio, JPA does not know about them
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "portfolio_id", nullable = false)
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	private Portfolio portfolio;
+
+	@Column(nullable = false)
+	private LocalDate date;
+
+	@Column(name = "total_value", nullable = false, precision = 18, scale = 2)
+	private BigDecimal totalValue;
+
+	// Holdings without a price that day at their last one, see PricingModeEnum.AS_OF
+	@Column(name = "total_value_as_of", precision = 18, scale = 2)
+	private BigDecimal totalValueAsOf;
+}
@@ -1,6 +1,7 @@
 package backend.service.dataService.entity;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
@@ -38,6 +39,11 @@ public class PortfolioFund {
 	@Column(name = "owned_units", precision = 18, scale = 4)
 	private BigDecimal ownedUnits;
 
+	// Date of the price the units were bought at, on or a few days before the
+	// portfolio's creation time
+	@Column(name = "price_date")
+	private LocalDate priceDate;
+
 	@Column(name = "created_at", insertable = false, updatable = false)
 	private LocalDateTime createdAt;
 }
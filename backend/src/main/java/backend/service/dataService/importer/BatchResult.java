@@ -0,0 +1,28 @@
+package backend.service.dataService.importer;
+
+/**
+ * Outcome of one flushed batch: how many rows were new and how many were
+ * skipped by ON CONFLICT (fund_id, date) DO NOTHING.
+ */
+public class BatchResult {
+
+	private final int inserted;
+	private final int duplicates;
+
+	public BatchResult(int inserted, int duplicates) {
+		this.inserted = inserted;
+		this.duplicates = duplicates;
+	}
+
+	public int getInserted() {
+		return inserted;
+	}
+
+	public int getDuplicates() {
+		return duplicates;
+	}
+
+	public int getTotal() {
+		return inserted + duplicates;
+	}
+}
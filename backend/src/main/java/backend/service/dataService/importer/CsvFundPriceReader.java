@@ -0,0 +1,139 @@
+package backend.service.dataService.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads fund prices from CSV exports, plain (.csv) or gzip-compressed
+ * (.csv.gz), with the same columns as the Excel workbooks. Files are read
+ * through an NIO channel into one reused byte buffer and lines are decoded in
+ * place by {@link CsvRowDecoder}, so there is no per-line String or
+ * unzip-and-XML work as with XLSX.
+ */
+@Component
+public class CsvFundPriceReader implements FundPriceReader {
+
+	private static final int BUFFER_SIZE = 256 * 1024;
+
+	@Value("${app.data.import.csv.delimiter:,}")
+	private char delimiter;
+
+	@Value("${app.data.import.csv.decimal-separator:.}")
+	private char decimalSeparator;
+
+	@Override
+	public boolean supports(ImportSource source) {
+		String name = source.getName();
+		if (name == null) {
+			return false;
+		}
+		String lower = name.toLowerCase();
+		return lower.endsWith(".csv") || lower.endsWith(".csv.gz");
+	}
+
+	@Override
+	public long read(ImportSource source, FundPriceSink sink) throws Exception {
+		long t0 = System.currentTimeMillis();
+		long rows = 0;
+		CsvRowDecoder decoder = new CsvRowDecoder(delimiter, decimalSeparator);
+
+		try (ReadableByteChannel channel = open(source)) {
+			byte[] buf = new byte[BUFFER_SIZE];
+			ByteBuffer buffer = ByteBuffer.wrap(buf);
+			int lineNum = 0;
+			int scanned = 0; // bytes already searched for a line break
+			boolean bomChecked = false;
+
+			while (true) {
+				boolean eof = channel.read(buffer) < 0;
+				int limit = buffer.position();
+				int lineStart = 0;
+
+				if (!bomChecked && (limit >= 3 || eof)) {
+					if (limit >= 3 && (buf[0] & 0xFF) == 0xEF && (buf[1] & 0xFF) == 0xBB && (buf[2] & 0xFF) == 0xBF) {
+						lineStart = 3;
+						scanned = 3;
+					}
+					bomChecked = true;
+				}
+				if (!bomChecked) {
+					continue;
+				}
+
+				for (int i = scanned; i < limit; i++) {
+					if (buf[i] == '\n') {
+						rows += line(source, decoder, sink, buf, lineStart, i, lineNum++);
+						lineStart = i + 1;
+					}
+				}
+
+				if (eof) {
+					if (lineStart < limit) {
+						rows += line(source, decoder, sink, buf, lineStart, limit, lineNum);
+					}
+					break;
+				}
+
+				// Keep the unfinished line at the front, grow if one line fills the buffer
+				int carried = limit - lineStart;
+				if (carried == buf.length) {
+					buf = Arrays.copyOf(buf, buf.length * 2);
+					buffer = ByteBuffer.wrap(buf);
+				} else {
+					System.arraycopy(buf, lineStart, buf, 0, carried);
+				}
+				buffer.position(carried);
+				scanned = carried;
+			}
+		}
+
+		System.out.println("IMPORT: " + source + " read in " + (System.currentTimeMillis() - t0) + " ms");
+		return rows;
+	}
+
+	/**
+	 * @return 1 if the line counts as a row, 0 for an empty line
+	 */
+	private static int line(ImportSource source, CsvRowDecoder decoder, FundPriceSink sink, byte[] buf, int from,
+			int to, int lineNum) {
+		if (to > from && buf[to - 1] == '\r') {
+			to--;
+		}
+		if (to == from) {
+			return 0;
+		}
+
+		try {
+			FundPriceRow parsed = decoder.decode(buf, from, to);
+			if (parsed != null) {
+				parsed.setOrigin(0, lineNum);
+				sink.accept(parsed);
+			}
+		} catch (RuntimeException e) {
+			System.out.println("Failed at " + source.getName() + " line=" + (lineNum + 1));
+			throw e;
+		}
+		return 1;
+	}
+
+	private static ReadableByteChannel open(ImportSource source) throws IOException {
+		// A FileChannel for files on disk, a wrapped stream for anything else
+		ReadableByteChannel channel = source.getResource().readableChannel();
+		if (!source.getName().toLowerCase().endsWith(".gz")) {
+			return channel;
+		}
+		try {
+			return Channels.newChannel(new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+}
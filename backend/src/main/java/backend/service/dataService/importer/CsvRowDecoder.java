@@ -0,0 +1,282 @@
+package backend.service.dataService.importer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns one CSV line, still as raw bytes, into a {@link FundPriceRow}. Columns
+ * are the same as in the TEFAS workbooks: date, code, name, price, circulating
+ * units, investor count and total value. Only code and name are decoded into
+ * strings; dates and numbers are read from the bytes directly.
+ * <p>
+ * Fields may be wrapped in double quotes (with "" for a quote inside), but a
+ * field cannot span lines. Dates are dd.MM.yyyy (also with '/' or '-') or
+ * yyyy-MM-dd.
+ */
+class CsvRowDecoder {
+
+	private static final int FIELDS = 7;
+
+	// Scales of price DECIMAL(18,6) and the DECIMAL(18,2) amount columns
+	private static final int PRICE_SCALE = 6;
+	private static final int AMOUNT_SCALE = 2;
+
+	private final byte delimiter;
+	private final char decimalPoint;
+	private final char grouping;
+
+	// Field bounds of the current line, reused for every line
+	private final int[] starts = new int[FIELDS];
+	private final int[] ends = new int[FIELDS];
+	private final boolean[] escapedQuotes = new boolean[FIELDS];
+	private final AsciiSlice slice = new AsciiSlice();
+
+	private final Map<String, String> strings = new HashMap<>();
+	private int lastDateKey = -1;
+	private LocalDate lastDate;
+
+	/**
+	 * @param delimiter    field separator, must be a single-byte character
+	 * @param decimalPoint '.' or ','; the other one is read as thousands
+	 *                     separator
+	 */
+	CsvRowDecoder(char delimiter, char decimalPoint) {
+		if (delimiter > 0x7F) {
+			throw new IllegalArgumentException("CSV delimiter must be an ASCII character: " + delimiter);
+		}
+		this.delimiter = (byte) delimiter;
+		this.decimalPoint = decimalPoint;
+		this.grouping = decimalPoint == ',' ? '.' : ',';
+	}
+
+	/**
+	 * @param from first byte of the line
+	 * @param to   end of the line, without the line break
+	 * @return the parsed row, or null for headers, short lines, blank codes,
+	 *         lines without a valid date and lines with a number that does not
+	 *         parse; blank numbers are read as zero
+	 */
+	FundPriceRow decode(byte[] line, int from, int to) {
+		if (split(line, from, to) < FIELDS) {
+			return null;
+		}
+
+		String code = textOf(line, 1);
+		if (code.isEmpty() || code.equals("Fon Kodu")) {
+			return null;
+		}
+
+		LocalDate date = dateOf(line, 0);
+		if (date == null) {
+			return null;
+		}
+
+		String name = textOf(line, 2);
+
+		BigDecimal price = decimalOf(line, 3, PRICE_SCALE); // Fiyat
+		BigDecimal units = decimalOf(line, 4, AMOUNT_SCALE); // Tedavüldeki Pay Sayısı
+		Integer investors = integerOf(line, 5); // Kişi Sayısı
+		BigDecimal totalVal = decimalOf(line, 6, AMOUNT_SCALE); // Fon Toplam Değer
+		if (price == null || units == null || investors == null || totalVal == null) {
+			return null;
+		}
+
+		return new FundPriceRow(code, name, date, price, units, investors, totalVal);
+	}
+
+	/**
+	 * Records the bounds of up to {@link #FIELDS} fields.
+	 *
+	 * @return number of fields found
+	 */
+	private int split(byte[] line, int from, int to) {
+		int field = 0;
+		int i = from;
+		while (field < FIELDS) {
+			escapedQuotes[field] = false;
+			if (i < to && line[i] == '"') {
+				int start = ++i;
+				while (i < to) {
+					if (line[i] == '"') {
+						if (i + 1 < to && line[i + 1] == '"') {
+							escapedQuotes[field] = true;
+							i += 2;
+							continue;
+						}
+						break;
+					}
+					i++;
+				}
+				starts[field] = start;
+				ends[field] = i;
+				// Skip the closing quote and anything up to the delimiter
+				while (i < to && line[i] != delimiter) {
+					i++;
+				}
+			} else {
+				starts[field] = i;
+				while (i < to && line[i] != delimiter) {
+					i++;
+				}
+				ends[field] = i;
+			}
+
+			field++;
+			if (i >= to) {
+				break;
+			}
+			i++; // delimiter
+		}
+		return field;
+	}
+
+	private String textOf(byte[] line, int field) {
+		int start = starts[field];
+		int end = ends[field];
+		while (start < end && line[start] == ' ') {
+			start++;
+		}
+		while (end > start && line[end - 1] == ' ') {
+			end--;
+		}
+		if (start == end) {
+			return "";
+		}
+
+		String value = new String(line, start, end - start, StandardCharsets.UTF_8);
+		if (escapedQuotes[field]) {
+			value = value.replace("\"\"", "\"");
+		}
+		String known = strings.putIfAbsent(value, value);
+		return known != null ? known : value;
+	}
+
+	private LocalDate dateOf(byte[] line, int field) {
+		int start = starts[field];
+		int end = ends[field];
+		while (start < end && line[start] == ' ') {
+			start++;
+		}
+		while (end > start && line[end - 1] == ' ') {
+			end--;
+		}
+		if (end - start != 10) {
+			return null;
+		}
+
+		int year;
+		int month;
+		int day;
+		if (line[start + 4] == '-' && line[start + 7] == '-') {
+			year = digits(line, start, 4);
+			month = digits(line, start + 5, 2);
+			day = digits(line, start + 8, 2);
+		} else if (isDateSeparator(line[start + 2]) && line[start + 5] == line[start + 2]) {
+			day = digits(line, start, 2);
+			month = digits(line, start + 3, 2);
+			year = digits(line, start + 6, 4);
+		} else {
+			return null;
+		}
+
+		if (year < 0 || month < 1 || month > 12 || day < 1) {
+			return null;
+		}
+		int key = year * 10_000 + month * 100 + day;
+		if (key != lastDateKey) {
+			if (day > Month.of(month).length(Year.isLeap(year))) {
+				return null;
+			}
+			lastDate = LocalDate.of(year, month, day);
+			lastDateKey = key;
+		}
+		return lastDate;
+	}
+
+	// null when the field holds something other than a number
+	private BigDecimal decimalOf(byte[] line, int field, int scale) {
+		slice.wrap(line, starts[field], ends[field]);
+		long unscaled = NumberText.parseScaled(slice, scale, decimalPoint, grouping);
+		if (unscaled != NumberText.INVALID) {
+			return BigDecimal.valueOf(unscaled, scale);
+		}
+		return isBlank(line, field) ? BigDecimal.ZERO : null;
+	}
+
+	private Integer integerOf(byte[] line, int field) {
+		slice.wrap(line, starts[field], ends[field]);
+		long value = NumberText.parseScaled(slice, 0, decimalPoint, grouping);
+		if (value != NumberText.INVALID) {
+			return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (int) value : null;
+		}
+		return isBlank(line, field) ? 0 : null;
+	}
+
+	private boolean isBlank(byte[] line, int field) {
+		for (int i = starts[field]; i < ends[field]; i++) {
+			if (line[i] != ' ' && line[i] != '\t') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDateSeparator(byte b) {
+		return b == '.' || b == '/' || b == '-';
+	}
+
+	// Value of count decimal digits, or -1 if any of them is not a digit
+	private static int digits(byte[] line, int start, int count) {
+		int value = 0;
+		for (int i = start; i < start + count; i++) {
+			int d = line[i] - '0';
+			if (d < 0 || d > 9) {
+				return -1;
+			}
+			value = value * 10 + d;
+		}
+		return value;
+	}
+
+	/**
+	 * Byte range viewed as characters, enough for number parsing; bytes of
+	 * multi-byte UTF-8 characters simply never match a digit.
+	 */
+	private static final class AsciiSlice implements CharSequence {
+
+		private byte[] bytes;
+		private int offset;
+		private int length;
+
+		void wrap(byte[] bytes, int from, int to) {
+			this.bytes = bytes;
+			this.offset = from;
+			this.length = to - from;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) (bytes[offset + index] & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+		}
+
+		@Override
+		public String toString() {
+			return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+		}
+	}
+}
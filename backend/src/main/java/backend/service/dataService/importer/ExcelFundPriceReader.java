@@ -0,0 +1,63 @@
+package backend.service.dataService.importer;
+
+import java.io.InputStream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.springframework.stereotype.Component;
+
+import com.github.pjfanning.xlsx.StreamingReader;
+
+/**
+ * Reads TEFAS "Tarihsel Veriler" workbooks (date, code, name, price,
+ * circulating units, investor count, total value) in streaming mode, every
+ * sheet of the workbook in order. Cells are decoded by {@link ExcelRowDecoder}.
+ */
+@Component
+public class ExcelFundPriceReader implements FundPriceReader {
+
+	@Override
+	public boolean supports(ImportSource source) {
+		String name = source.getName();
+		return name != null && name.toLowerCase().endsWith(".xlsx");
+	}
+
+	@Override
+	public long read(ImportSource source, FundPriceSink sink) throws Exception {
+		long t0 = System.currentTimeMillis();
+		long rows = 0;
+		ExcelRowDecoder decoder = new ExcelRowDecoder();
+
+		try (InputStream is = source.getResource().getInputStream();
+				Workbook workbook = StreamingReader.builder().rowCacheSize(100).bufferSize(4096).open(is)) {
+			System.out.println("IMPORT: " + source + " workbook opened in " + (System.currentTimeMillis() - t0)
+					+ " ms, sheets=" + workbook.getNumberOfSheets());
+
+			int sheetIndex = 0;
+			for (Sheet sheet : workbook) {
+				for (Row row : sheet) {
+					if (row.getRowNum() == 0)
+						continue; // Skip Header
+
+					try {
+						rows++;
+						FundPriceRow parsed = decoder.decode(row);
+						if (parsed != null) {
+							parsed.setOrigin(sheetIndex, row.getRowNum());
+							sink.accept(parsed);
+						}
+					} catch (Exception e) {
+						System.out.println(
+								"Failed at " + source.getName() + " sheet=" + sheet.getSheetName() + " excelRow="
+										+ row.getRowNum());
+						throw e;
+					}
+				}
+				sheetIndex++;
+			}
+		}
+
+		return rows;
+	}
+}
@@ -0,0 +1,131 @@
+package backend.service.dataService.importer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+
+/**
+ * Turns one TEFAS worksheet row into a {@link FundPriceRow}. Dates are taken
+ * straight from the Excel serial number instead of going through
+ * java.util.Date and the system time zone, numbers are rounded to the scale of
+ * their fund_price_history column, and text cells are scanned by hand so a
+ * malformed value costs a branch rather than an exception.
+ * <p>
+ * One decoder per reader thread: it remembers the last date and the fund code
+ * and name strings it has seen, which repeat on almost every row.
+ */
+class ExcelRowDecoder {
+
+	// Serial day 0 of the 1900 date system
+	private static final long EXCEL_EPOCH_DAY = LocalDate.of(1899, 12, 30).toEpochDay();
+
+	// Scales of price DECIMAL(18,6) and the DECIMAL(18,2) amount columns
+	private static final int PRICE_SCALE = 6;
+	private static final int AMOUNT_SCALE = 2;
+	private static final double[] POWERS_OF_TEN = { 1, 10, 100, 1_000, 10_000, 100_000, 1_000_000 };
+
+	private final Map<String, String> strings = new HashMap<>();
+	private long lastSerialDay = Long.MIN_VALUE;
+	private LocalDate lastDate;
+
+	/**
+	 * @return the parsed row, or null for headers, blank codes and rows without
+	 *         a valid date
+	 */
+	FundPriceRow decode(Row row) {
+		String code = stringOf(row.getCell(1));
+		if (code.isBlank() || code.equals("Fon Kodu")) {
+			return null;
+		}
+
+		LocalDate date = dateOf(row.getCell(0));
+		if (date == null) {
+			return null;
+		}
+
+		String name = stringOf(row.getCell(2));
+
+		BigDecimal price = decimalOf(row.getCell(3), PRICE_SCALE); // Fiyat
+		BigDecimal units = decimalOf(row.getCell(4), AMOUNT_SCALE); // Tedavüldeki Pay Sayısı
+		Integer investors = integerOf(row.getCell(5)); // Kişi Sayısı
+		BigDecimal totalVal = decimalOf(row.getCell(6), AMOUNT_SCALE); // Fon Toplam Değer
+
+		return new FundPriceRow(code, name, date, price, units, investors, totalVal);
+	}
+
+	LocalDate dateOf(Cell cell) {
+		if (cell == null || cell.getCellType() != CellType.NUMERIC) {
+			return null;
+		}
+		double serial = cell.getNumericCellValue();
+		if (!(serial >= 0)) {
+			return null;
+		}
+
+		long day = (long) serial; // the time of day is dropped
+		if (day != lastSerialDay) {
+			// Excel counts a 29 February 1900 that never existed, serials
+			// before 1 March 1900 are one day early against this epoch
+			long epochDay = EXCEL_EPOCH_DAY + (day < 61 ? day + 1 : day);
+			lastDate = LocalDate.ofEpochDay(epochDay);
+			lastSerialDay = day;
+		}
+		return lastDate;
+	}
+
+	private String stringOf(Cell cell) {
+		if (cell == null) {
+			return "";
+		}
+		if (cell.getCellType() == CellType.STRING) {
+			return canonical(cell.getStringCellValue());
+		}
+		if (cell.getCellType() == CellType.NUMERIC) {
+			return canonical(String.valueOf(cell.getNumericCellValue()));
+		}
+		return "";
+	}
+
+	private String canonical(String value) {
+		String known = strings.putIfAbsent(value, value);
+		return known != null ? known : value;
+	}
+
+	private static BigDecimal decimalOf(Cell cell, int scale) {
+		if (cell == null) {
+			return BigDecimal.ZERO;
+		}
+		if (cell.getCellType() == CellType.NUMERIC) {
+			return BigDecimal.valueOf(Math.round(cell.getNumericCellValue() * POWERS_OF_TEN[scale]), scale);
+		}
+		if (cell.getCellType() == CellType.STRING) {
+			long unscaled = NumberText.parseScaled(cell.getStringCellValue(), scale, '.', NumberText.NONE);
+			if (unscaled != NumberText.INVALID) {
+				return BigDecimal.valueOf(unscaled, scale);
+			}
+		}
+		return BigDecimal.ZERO;
+	}
+
+	private static Integer integerOf(Cell cell) {
+		if (cell == null) {
+			return 0;
+		}
+		if (cell.getCellType() == CellType.NUMERIC) {
+			return (int) cell.getNumericCellValue();
+		}
+		if (cell.getCellType() == CellType.STRING) {
+			// Dots are thousand separators in these counts
+			long value = NumberText.parseScaled(cell.getStringCellValue(), 0, NumberText.NONE, '.');
+			if (value != NumberText.INVALID && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+				return (int) value;
+			}
+		}
+		return 0;
+	}
+}
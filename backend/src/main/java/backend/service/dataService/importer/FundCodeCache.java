@@ -0,0 +1,243 @@
+package backend.service.dataService.importer;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import backend.service.dataService.entity.FundImportWatermark;
+import backend.service.dataService.repository.FundImportWatermarkRepository;
+import backend.service.dataService.repository.FundRepository;
+
+/**
+ * Fund code -> id map used while importing. It is filled with every fund once
+ * per import run, so rows are resolved without touching the database; codes
+ * that are not in the map yet are created together in one multi-row insert.
+ * For incremental runs it also holds each fund's import watermark, and rows at
+ * or before it are dropped before they are ever queued.
+ */
+@Component
+public class FundCodeCache {
+
+	// Rows of unknown funds are held back until this many are waiting
+	private static final int PENDING_LIMIT = 1000;
+
+	private static final String INSERT_PREFIX = "INSERT INTO funds (code, name, type_id, created_at) VALUES ";
+	private static final String INSERT_SUFFIX = " ON CONFLICT (code) DO NOTHING RETURNING id, code";
+
+	// Skipped rows are reported to the listener in groups of this size
+	private static final int SKIP_REPORT_INTERVAL = 10_000;
+
+	private final FundRepository fundRepository;
+	private final FundImportWatermarkRepository watermarkRepository;
+	private final JdbcTemplate jdbcTemplate;
+
+	private final Map<String, Long> idsByCode = new ConcurrentHashMap<>();
+	private final Map<Long, LocalDate> loadedThroughByFundId = new ConcurrentHashMap<>();
+
+	public FundCodeCache(FundRepository fundRepository, FundImportWatermarkRepository watermarkRepository,
+			JdbcTemplate jdbcTemplate) {
+		this.fundRepository = fundRepository;
+		this.watermarkRepository = watermarkRepository;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * (Re)loads all fund codes, and the watermarks when the run is incremental.
+	 * Called at the start of every import run.
+	 */
+	public void load(boolean incremental) {
+		idsByCode.clear();
+		for (Object[] pair : fundRepository.findAllCodesAndIds()) {
+			idsByCode.put((String) pair[0], (Long) pair[1]);
+		}
+
+		loadedThroughByFundId.clear();
+		if (incremental) {
+			for (FundImportWatermark wm : watermarkRepository.findAll()) {
+				loadedThroughByFundId.put(wm.getFundId(), wm.getLoadedThrough());
+			}
+		}
+		System.out.println("IMPORT: fund code cache loaded with " + idsByCode.size() + " funds, "
+				+ loadedThroughByFundId.size() + " watermarks");
+	}
+
+	/**
+	 * Records that everything up to each fund's latest price is loaded. Must only
+	 * be called once a run has committed all of its rows.
+	 */
+	public void advanceWatermarks() {
+		int moved = watermarkRepository.advanceToLatestPrices();
+		System.out.println("IMPORT: advanced " + moved + " fund watermarks");
+	}
+
+	public Long idOf(String code) {
+		return idsByCode.get(code);
+	}
+
+	/**
+	 * Wraps a sink so every row reaches it with its fund id set. Rows whose code
+	 * is unknown are buffered and their funds created in one statement, rows
+	 * already covered by a watermark are dropped.
+	 */
+	public FundPriceSink resolving(FundPriceSink target, Long typeId, ImportListener listener) {
+		return new ResolvingSink(target, typeId, listener);
+	}
+
+	/**
+	 * Inserts the given funds (code -> name) that do not exist yet and adds all
+	 * of them to the cache.
+	 *
+	 * @return number of funds that were actually created
+	 */
+	public int createMissing(Map<String, String> namesByCode, Long typeId) {
+		List<String> codes = new ArrayList<>(namesByCode.keySet());
+		String sql = buildInsertSql(codes.size());
+
+		List<String> created = jdbcTemplate.query(sql, (PreparedStatement ps) -> {
+			int i = 1;
+			for (String code : codes) {
+				ps.setString(i++, code);
+				ps.setString(i++, namesByCode.get(code));
+				if (typeId != null) {
+					ps.setLong(i++, typeId);
+				} else {
+					ps.setNull(i++, Types.BIGINT);
+				}
+			}
+		}, (rs, rowNum) -> {
+			idsByCode.put(rs.getString(2), rs.getLong(1));
+			return rs.getString(2);
+		});
+
+		// Codes another writer created in the meantime come back from the
+		// conflict branch without an id, read those back in one go
+		if (created.size() < codes.size()) {
+			List<String> missing = new ArrayList<>();
+			for (String code : codes) {
+				if (!idsByCode.containsKey(code)) {
+					missing.add(code);
+				}
+			}
+			if (!missing.isEmpty()) {
+				jdbcTemplate.query("SELECT id, code FROM funds WHERE code = ANY(?)",
+						(PreparedStatement ps) -> ps.setArray(1,
+								ps.getConnection().createArrayOf("varchar", missing.toArray())),
+						rs -> {
+							idsByCode.put(rs.getString(2), rs.getLong(1));
+						});
+			}
+		}
+
+		return created.size();
+	}
+
+	private static String buildInsertSql(int fundCount) {
+		StringBuilder sb = new StringBuilder(INSERT_PREFIX.length() + fundCount * 20 + INSERT_SUFFIX.length());
+		sb.append(INSERT_PREFIX);
+		for (int f = 0; f < fundCount; f++) {
+			if (f > 0) {
+				sb.append(", ");
+			}
+			sb.append("(?, ?, ?, now())");
+		}
+		sb.append(INSERT_SUFFIX);
+		return sb.toString();
+	}
+
+	private class ResolvingSink implements FundPriceSink {
+
+		private final FundPriceSink target;
+		private final Long typeId;
+		private final ImportListener listener;
+		private final List<FundPriceRow> pending = new ArrayList<>();
+		private int skipped = 0;
+
+		ResolvingSink(FundPriceSink target, Long typeId, ImportListener listener) {
+			this.target = target;
+			this.typeId = typeId;
+			this.listener = listener;
+		}
+
+		@Override
+		public void accept(FundPriceRow row) {
+			// Once a row is held back, later rows queue up behind it so rows leave
+			// in file order (import checkpoints rely on that)
+			if (pending.isEmpty()) {
+				Long id = idsByCode.get(row.getFundCode());
+				if (id != null) {
+					forward(row, id);
+					return;
+				}
+			}
+
+			pending.add(row);
+			if (pending.size() >= PENDING_LIMIT) {
+				resolvePending();
+			}
+		}
+
+		private void forward(FundPriceRow row, Long id) {
+			LocalDate loadedThrough = loadedThroughByFundId.get(id);
+			if (loadedThrough != null && !row.getDate().isAfter(loadedThrough)) {
+				if (++skipped >= SKIP_REPORT_INTERVAL) {
+					reportSkipped();
+				}
+				return;
+			}
+			row.setFundId(id);
+			target.accept(row);
+		}
+
+		@Override
+		public BatchResult finish() {
+			resolvePending();
+			reportSkipped();
+			return target.finish();
+		}
+
+		@Override
+		public void close() {
+			pending.clear();
+			reportSkipped();
+			target.close();
+		}
+
+		private void reportSkipped() {
+			if (skipped > 0) {
+				listener.onRowsSkipped(skipped);
+				skipped = 0;
+			}
+		}
+
+		private void resolvePending() {
+			if (pending.isEmpty()) {
+				return;
+			}
+
+			Map<String, String> unknown = new LinkedHashMap<>();
+			for (FundPriceRow row : pending) {
+				if (!idsByCode.containsKey(row.getFundCode())) {
+					unknown.putIfAbsent(row.getFundCode(), row.getFundName());
+				}
+			}
+			if (!unknown.isEmpty()) {
+				int created = createMissing(unknown, typeId);
+				System.out.println("IMPORT: created " + created + " new funds");
+				listener.onFundsCreated(created);
+			}
+
+			for (FundPriceRow row : pending) {
+				forward(row, idsByCode.get(row.getFundCode()));
+			}
+			pending.clear();
+		}
+	}
+}
@@ -0,0 +1,329 @@
+package backend.service.dataService.importer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports several sources at once. Every source is parsed on its own parser
+ * thread; parsed rows are resolved against {@link FundCodeCache}, grouped into
+ * batches and put on a bounded queue that writer threads drain into the
+ * configured {@link ImportMode}. Parsing and database writes overlap, and a
+ * full queue slows the parsers down instead of buffering the whole file.
+ * Every source keeps a checkpoint of its last committed row, so a run that was
+ * interrupted picks up where it stopped instead of re-reading the whole file.
+ */
+@Component
+public class FundImportPipeline {
+
+	private static final long OFFER_TIMEOUT_MS = 200;
+
+	private final List<FundPriceReader> readers;
+	private final FundCodeCache fundCodeCache;
+	private final FundPriceBatchWriter batchWriter;
+	private final FundPriceCopyWriter copyWriter;
+	private final ImportCheckpointService checkpointService;
+
+	@Value("${app.data.import.mode:BATCH}")
+	private ImportMode importMode;
+
+	@Value("${app.data.import.parser-threads:4}")
+	private int parserThreads;
+
+	@Value("${app.data.import.writer-threads:2}")
+	private int writerThreads;
+
+	@Value("${app.data.import.queue-capacity:8}")
+	private int queueCapacity;
+
+	@Value("${app.data.import.incremental:true}")
+	private boolean incremental;
+
+	public FundImportPipeline(List<FundPriceReader> readers, FundCodeCache fundCodeCache,
+			FundPriceBatchWriter batchWriter, FundPriceCopyWriter copyWriter,
+			ImportCheckpointService checkpointService) {
+		this.readers = readers;
+		this.fundCodeCache = fundCodeCache;
+		this.batchWriter = batchWriter;
+		this.copyWriter = copyWriter;
+		this.checkpointService = checkpointService;
+	}
+
+	public ImportMode getImportMode() {
+		return importMode;
+	}
+
+	/**
+	 * Runs all sources to completion. If any parser or writer fails the rest of
+	 * the run is stopped and the first failure is rethrown; batches committed
+	 * before that stay in the database.
+	 */
+	public void run(List<ImportSource> sources, ImportListener listener) throws Exception {
+		if (sources.isEmpty()) {
+			return;
+		}
+
+		// All known fund codes are resolved from memory from here on
+		fundCodeCache.load(incremental);
+
+		List<SourceProgress> progresses = new ArrayList<>();
+		for (ImportSource source : sources) {
+			progresses.add(checkpointService.begin(source));
+		}
+
+		BlockingQueue<ImportBatch> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		int parsers = Math.max(1, Math.min(parserThreads, sources.size()));
+		int writers = Math.max(1, writerThreads);
+		ExecutorService parserPool = Executors.newFixedThreadPool(parsers, named("import-parser-"));
+		ExecutorService writerPool = Executors.newFixedThreadPool(writers, named("import-writer-"));
+
+		System.out.println("IMPORT: mode=" + importMode + " incremental=" + incremental + " sources=" + sources.size()
+				+ " parserThreads=" + parsers + " writerThreads=" + writers + " queueCapacity=" + queueCapacity);
+
+		try {
+			List<Future<BatchResult>> writerFutures = new ArrayList<>();
+			for (int i = 0; i < writers; i++) {
+				writerFutures.add(writerPool.submit(() -> drain(queue, listener, failure)));
+			}
+
+			List<Future<Long>> parserFutures = new ArrayList<>();
+			for (SourceProgress progress : progresses) {
+				parserFutures.add(parserPool.submit(() -> parse(progress, queue, listener, failure)));
+			}
+
+			for (Future<Long> f : parserFutures) {
+				await(f, failure);
+			}
+
+			if (failure.get() == null) {
+				for (int i = 0; i < writers; i++) {
+					enqueue(queue, ImportBatch.END, failure);
+				}
+			} else {
+				// Writers may be blocked on an empty queue, wake them up
+				writerPool.shutdownNow();
+			}
+
+			for (Future<BatchResult> f : writerFutures) {
+				await(f, failure);
+			}
+		} finally {
+			parserPool.shutdownNow();
+			writerPool.shutdownNow();
+		}
+
+		Throwable t = failure.get();
+		if (t instanceof Exception) {
+			throw (Exception) t;
+		}
+		if (t != null) {
+			throw new IllegalStateException("Import failed", t);
+		}
+
+		for (SourceProgress progress : progresses) {
+			checkpointService.complete(progress);
+		}
+
+		// Only a complete run may move the watermarks, a failed one leaves them
+		// where they were and the next run covers the same dates again
+		fundCodeCache.advanceWatermarks();
+	}
+
+	private long parse(SourceProgress progress, BlockingQueue<ImportBatch> queue, ImportListener listener,
+			AtomicReference<Throwable> failure) throws Exception {
+		ImportSource source = progress.getSource();
+		FundPriceReader reader = readerFor(source);
+		long t0 = System.currentTimeMillis();
+
+		QueueSink queueSink = new QueueSink(progress, queue, listener, failure);
+		FundPriceSink sink = progress.skippingCommitted(
+				fundCodeCache.resolving(queueSink, source.getFundTypeId(), listener), listener);
+		try {
+			long rows = reader.read(source, sink);
+			sink.finish();
+			System.out.println("IMPORT: parsed " + source + " rows=" + rows + " handed=" + queueSink.handed + " in "
+					+ (System.currentTimeMillis() - t0) + " ms");
+			return rows;
+		} catch (Throwable t) {
+			failure.compareAndSet(null, t);
+			sink.close();
+			throw t;
+		}
+	}
+
+	private BatchResult drain(BlockingQueue<ImportBatch> queue, ImportListener listener,
+			AtomicReference<Throwable> failure) throws Exception {
+		CommitTracker tracker = new CommitTracker(listener);
+		try (FundPriceSink sink = importMode == ImportMode.COPY ? copyWriter.openSink(tracker)
+				: batchWriter.openSink(tracker)) {
+			while (true) {
+				ImportBatch batch = queue.take();
+				if (batch == ImportBatch.END) {
+					break;
+				}
+				tracker.add(batch);
+				for (FundPriceRow row : batch.getRows()) {
+					sink.accept(row);
+				}
+			}
+			return sink.finish();
+		} catch (InterruptedException e) {
+			// run() gave up after another thread failed, the sink rolled back
+			Thread.currentThread().interrupt();
+			return new BatchResult(0, 0);
+		} catch (Throwable t) {
+			failure.compareAndSet(null, t);
+			throw t;
+		}
+	}
+
+	private FundPriceReader readerFor(ImportSource source) {
+		for (FundPriceReader reader : readers) {
+			if (reader.supports(source)) {
+				return reader;
+			}
+		}
+		throw new IllegalArgumentException("No reader for import source " + source);
+	}
+
+	private static void enqueue(BlockingQueue<ImportBatch> queue, ImportBatch batch,
+			AtomicReference<Throwable> failure) throws InterruptedException {
+		while (!queue.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+			if (failure.get() != null) {
+				throw new IllegalStateException("Import aborted", failure.get());
+			}
+		}
+	}
+
+	private static void await(Future<?> future, AtomicReference<Throwable> failure) throws InterruptedException {
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			failure.compareAndSet(null, e.getCause());
+		}
+	}
+
+	private static ThreadFactory named(String prefix) {
+		AtomicInteger counter = new AtomicInteger();
+		return r -> {
+			Thread t = new Thread(r, prefix + counter.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		};
+	}
+
+	/**
+	 * Writer-side commit callback. A sink commits whole row counts that do not
+	 * line up with queued batches (COPY commits many batches at once), so the
+	 * batches handed to the sink are consumed front to back and each one is
+	 * reported to its source once all of its rows are committed.
+	 */
+	private static class CommitTracker implements Consumer<BatchResult> {
+
+		private final ImportListener listener;
+		private final ArrayDeque<ImportBatch> uncommitted = new ArrayDeque<>();
+		private long headRemaining = 0;
+
+		CommitTracker(ImportListener listener) {
+			this.listener = listener;
+		}
+
+		void add(ImportBatch batch) {
+			if (uncommitted.isEmpty()) {
+				headRemaining = batch.getRows().size();
+			}
+			uncommitted.add(batch);
+		}
+
+		@Override
+		public void accept(BatchResult result) {
+			listener.onCommit(result);
+
+			long rows = result.getTotal();
+			while (rows > 0 && !uncommitted.isEmpty()) {
+				if (rows < headRemaining) {
+					headRemaining -= rows;
+					return;
+				}
+				rows -= headRemaining;
+				ImportBatch done = uncommitted.poll();
+				done.getProgress().committed(done);
+				ImportBatch next = uncommitted.peek();
+				headRemaining = next != null ? next.getRows().size() : 0;
+			}
+		}
+	}
+
+	/**
+	 * Parser-side sink: groups resolved rows into batches and blocks while the
+	 * queue is full. Nothing is committed here, the writers report commits.
+	 */
+	private class QueueSink implements FundPriceSink {
+
+		private final SourceProgress progress;
+		private final BlockingQueue<ImportBatch> queue;
+		private final ImportListener listener;
+		private final AtomicReference<Throwable> failure;
+		private List<FundPriceRow> rows;
+		private long handed = 0;
+
+		QueueSink(SourceProgress progress, BlockingQueue<ImportBatch> queue, ImportListener listener,
+				AtomicReference<Throwable> failure) {
+			this.progress = progress;
+			this.queue = queue;
+			this.listener = listener;
+			this.failure = failure;
+			this.rows = new ArrayList<>(batchWriter.getBatchSize());
+		}
+
+		@Override
+		public void accept(FundPriceRow row) {
+			rows.add(row);
+			if (rows.size() >= batchWriter.getBatchSize()) {
+				hand();
+			}
+		}
+
+		@Override
+		public BatchResult finish() {
+			hand();
+			return new BatchResult(0, 0);
+		}
+
+		@Override
+		public void close() {
+			rows.clear();
+		}
+
+		private void hand() {
+			if (rows.isEmpty()) {
+				return;
+			}
+			try {
+				enqueue(queue, progress.nextBatch(rows), failure);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while queueing import batch", e);
+			}
+			handed += rows.size();
+			listener.onRowsParsed(rows.size());
+			rows = new ArrayList<>(batchWriter.getBatchSize());
+		}
+	}
+}
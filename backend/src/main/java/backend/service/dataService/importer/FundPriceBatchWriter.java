@@ -0,0 +1,154 @@
+package backend.service.dataService.importer;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes buffered price rows with one multi-row INSERT ... ON CONFLICT DO
+ * NOTHING per batch, each batch in its own transaction. The statement also
+ * moves fund_latest_price forward and returns the number of new rows, the rest
+ * were duplicates.
+ */
+@Component
+public class FundPriceBatchWriter {
+
+	// 6 bind parameters per row, PgJDBC accepts at most 65535 per statement
+	private static final int MAX_BATCH_SIZE = 5000;
+
+	private static final String INSERT_PREFIX = """
+			INSERT INTO fund_price_history
+			  (fund_id, date, price, circulating_units, investor_count, total_value, created_at)
+			VALUES
+			""";
+
+	private static final String INSERT_SUFFIX = "\nON CONFLICT (fund_id, date) DO NOTHING";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+
+	// SQL for a full batch is built once, only the tail batch needs its own
+	private final String fullBatchSql;
+
+	public FundPriceBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			@Value("${app.data.import.batch-size:1000}") int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+		this.fullBatchSql = buildInsertSql(this.batchSize);
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Opens a sink that buffers rows and writes them one full batch at a time.
+	 */
+	public FundPriceSink openSink(Consumer<BatchResult> onCommit) {
+		return new BatchingSink(onCommit);
+	}
+
+	/**
+	 * Inserts the rows in a single transaction. Callers are expected to pass at
+	 * most {@link #getBatchSize()} rows.
+	 */
+	public BatchResult write(List<FundPriceRow> rows) {
+		if (rows.isEmpty()) {
+			return new BatchResult(0, 0);
+		}
+		if (rows.size() > batchSize) {
+			throw new IllegalArgumentException("Batch of " + rows.size() + " rows exceeds batch size " + batchSize);
+		}
+
+		String sql = rows.size() == batchSize ? fullBatchSql : buildInsertSql(rows.size());
+
+		Integer inserted = transactionTemplate
+				.execute(status -> jdbcTemplate.query(sql, ps -> bindRows(ps, rows), rs -> rs.next() ? rs.getInt(1) : 0));
+
+		int insertedRows = inserted != null ? inserted : 0;
+		return new BatchResult(insertedRows, rows.size() - insertedRows);
+	}
+
+	private static void bindRows(PreparedStatement ps, List<FundPriceRow> rows) throws SQLException {
+		int i = 1;
+		for (FundPriceRow row : rows) {
+			ps.setLong(i++, row.getFundId());
+			ps.setDate(i++, Date.valueOf(row.getDate()));
+			ps.setBigDecimal(i++, row.getPrice());
+			ps.setBigDecimal(i++, row.getCirculatingUnits());
+			if (row.getInvestorCount() != null) {
+				ps.setInt(i++, row.getInvestorCount());
+			} else {
+				ps.setNull(i++, Types.INTEGER);
+			}
+			ps.setBigDecimal(i++, row.getTotalValue());
+		}
+	}
+
+	private static String buildInsertSql(int rowCount) {
+		StringBuilder sb = new StringBuilder(INSERT_PREFIX.length() + rowCount * 32 + INSERT_SUFFIX.length());
+		sb.append(INSERT_PREFIX);
+		for (int r = 0; r < rowCount; r++) {
+			if (r > 0) {
+				sb.append(",\n");
+			}
+			sb.append("  (?, ?, ?, ?, ?, ?, now())");
+		}
+		sb.append(INSERT_SUFFIX);
+		return LatestPriceProjection.insertAndProject(sb.toString());
+	}
+
+	private class BatchingSink implements FundPriceSink {
+
+		private final Consumer<BatchResult> onCommit;
+		private final List<FundPriceRow> buffer = new ArrayList<>(batchSize);
+		private int inserted = 0, duplicates = 0;
+
+		BatchingSink(Consumer<BatchResult> onCommit) {
+			this.onCommit = onCommit;
+		}
+
+		@Override
+		public void accept(FundPriceRow row) {
+			buffer.add(row);
+			if (buffer.size() >= batchSize) {
+				flush();
+			}
+		}
+
+		@Override
+		public BatchResult finish() {
+			flush();
+			return new BatchResult(inserted, duplicates);
+		}
+
+		@Override
+		public void close() {
+			// rows still buffered here were never sent, nothing to roll back
+			buffer.clear();
+		}
+
+		private void flush() {
+			if (buffer.isEmpty()) {
+				return;
+			}
+			BatchResult result = write(buffer);
+			buffer.clear();
+			inserted += result.getInserted();
+			duplicates += result.getDuplicates();
+			onCommit.accept(result);
+		}
+	}
+}
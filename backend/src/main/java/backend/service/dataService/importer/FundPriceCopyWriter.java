@@ -0,0 +1,198 @@
+package backend.service.dataService.importer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fast ingest path: rows are streamed through the PgJDBC CopyManager into a
+ * temporary staging table and merged into fund_price_history with a single
+ * INSERT ... SELECT ... ON CONFLICT DO NOTHING per chunk, which also moves
+ * fund_latest_price forward.
+ */
+@Component
+public class FundPriceCopyWriter {
+
+	private static final String CREATE_STAGING_SQL = """
+			CREATE TEMP TABLE fund_price_staging (
+			  fund_id BIGINT NOT NULL,
+			  date DATE NOT NULL,
+			  price NUMERIC(18,6),
+			  circulating_units NUMERIC(18,2),
+			  investor_count INTEGER,
+			  total_value NUMERIC(18,2)
+			) ON COMMIT DROP
+			""";
+
+	private static final String COPY_SQL = """
+			COPY fund_price_staging (fund_id, date, price, circulating_units, investor_count, total_value)
+			FROM STDIN WITH (FORMAT csv)
+			""";
+
+	private static final String MERGE_SQL = LatestPriceProjection.insertAndProject("""
+			INSERT INTO fund_price_history
+			  (fund_id, date, price, circulating_units, investor_count, total_value, created_at)
+			SELECT fund_id, date, price, circulating_units, investor_count, total_value, now()
+			FROM fund_price_staging
+			ON CONFLICT (fund_id, date) DO NOTHING""");
+
+	// Encoded rows are handed to the COPY stream in blocks of about this size
+	private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+	private final DataSource dataSource;
+	private final int chunkRows;
+
+	public FundPriceCopyWriter(DataSource dataSource, @Value("${app.data.import.copy-chunk-rows:200000}") int chunkRows) {
+		this.dataSource = dataSource;
+		this.chunkRows = Math.max(1, chunkRows);
+	}
+
+	/**
+	 * Opens a sink that keeps one connection and commits every
+	 * app.data.import.copy-chunk-rows rows.
+	 */
+	public FundPriceSink openSink(Consumer<BatchResult> onCommit) {
+		return new CopySink(onCommit);
+	}
+
+	private class CopySink implements FundPriceSink {
+
+		private final Consumer<BatchResult> onCommit;
+		private final StringBuilder line = new StringBuilder(COPY_BUFFER_BYTES + 256);
+
+		private Connection connection;
+		private CopyIn copyIn;
+		private int rowsInChunk = 0;
+		private int inserted = 0, duplicates = 0;
+
+		CopySink(Consumer<BatchResult> onCommit) {
+			this.onCommit = onCommit;
+		}
+
+		@Override
+		public void accept(FundPriceRow row) {
+			try {
+				if (copyIn == null) {
+					beginChunk();
+				}
+
+				line.append(row.getFundId()).append(',').append(row.getDate()).append(',');
+				appendDecimal(row.getPrice());
+				line.append(',');
+				appendDecimal(row.getCirculatingUnits());
+				line.append(',');
+				if (row.getInvestorCount() != null) {
+					line.append(row.getInvestorCount().intValue());
+				}
+				line.append(',');
+				appendDecimal(row.getTotalValue());
+				line.append('\n');
+
+				if (line.length() >= COPY_BUFFER_BYTES) {
+					writeBuffer();
+				}
+				if (++rowsInChunk >= chunkRows) {
+					commitChunk();
+				}
+			} catch (SQLException e) {
+				close();
+				throw new RuntimeException("COPY into fund_price_staging failed", e);
+			}
+		}
+
+		@Override
+		public BatchResult finish() {
+			try {
+				if (copyIn != null) {
+					commitChunk();
+				}
+				return new BatchResult(inserted, duplicates);
+			} catch (SQLException e) {
+				throw new RuntimeException("Merging fund_price_staging failed", e);
+			} finally {
+				close();
+			}
+		}
+
+		@Override
+		public void close() {
+			line.setLength(0);
+			if (connection == null) {
+				return;
+			}
+			try {
+				if (copyIn != null && copyIn.isActive()) {
+					copyIn.cancelCopy();
+				}
+				connection.rollback();
+			} catch (SQLException e) {
+				System.out.println("COPY import: rollback failed: " + e.getMessage());
+			} finally {
+				try {
+					connection.setAutoCommit(true);
+					connection.close();
+				} catch (SQLException e) {
+					System.out.println("COPY import: closing connection failed: " + e.getMessage());
+				}
+				connection = null;
+				copyIn = null;
+			}
+		}
+
+		private void beginChunk() throws SQLException {
+			if (connection == null) {
+				connection = dataSource.getConnection();
+				connection.setAutoCommit(false);
+			}
+			try (Statement st = connection.createStatement()) {
+				st.execute(CREATE_STAGING_SQL);
+			}
+			copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+		}
+
+		private void commitChunk() throws SQLException {
+			writeBuffer();
+			long copied = copyIn.endCopy();
+			copyIn = null;
+
+			int merged;
+			try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(MERGE_SQL)) {
+				merged = rs.next() ? rs.getInt(1) : 0;
+			}
+			connection.commit();
+
+			BatchResult result = new BatchResult(merged, (int) copied - merged);
+			inserted += result.getInserted();
+			duplicates += result.getDuplicates();
+			rowsInChunk = 0;
+			onCommit.accept(result);
+		}
+
+		private void writeBuffer() throws SQLException {
+			if (line.length() == 0) {
+				return;
+			}
+			byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+			copyIn.writeToCopy(bytes, 0, bytes.length);
+			line.setLength(0);
+		}
+
+		private void appendDecimal(BigDecimal value) {
+			// an empty unquoted field is NULL in COPY csv format
+			if (value != null) {
+				line.append(value.toPlainString());
+			}
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package backend.service.dataService.importer;
+
+/**
+ * Parses one import file format into {@link FundPriceRow}s.
+ */
+public interface FundPriceReader {
+
+	boolean supports(ImportSource source);
+
+	/**
+	 * Streams every data row of the source into the sink. The sink is neither
+	 * finished nor closed here.
+	 *
+	 * @return number of rows read, including skipped ones
+	 */
+	long read(ImportSource source, FundPriceSink sink) throws Exception;
+}
@@ -0,0 +1,99 @@
+package backend.service.dataService.importer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One parsed price row of an import file, buffered until its batch is written
+ * to fund_price_history.
+ */
+public class FundPriceRow {
+
+	private final String fundCode;
+	private final String fundName;
+	private Long fundId;
+	private final LocalDate date;
+	private final BigDecimal price;
+	private final BigDecimal circulatingUnits;
+	private final Integer investorCount;
+	private final BigDecimal totalValue;
+
+	// Where the row came from: sheet index and row number inside the sheet
+	private int sheetIndex;
+	private int rowNum;
+
+	public FundPriceRow(String fundCode, String fundName, LocalDate date, BigDecimal price,
+			BigDecimal circulatingUnits, Integer investorCount, BigDecimal totalValue) {
+		this.fundCode = fundCode;
+		this.fundName = fundName;
+		this.date = date;
+		this.price = price;
+		this.circulatingUnits = circulatingUnits;
+		this.investorCount = investorCount;
+		this.totalValue = totalValue;
+	}
+
+	public String getFundCode() {
+		return fundCode;
+	}
+
+	public String getFundName() {
+		return fundName;
+	}
+
+	/**
+	 * Filled in by {@link FundCodeCache} once the code is known to exist in the
+	 * funds table.
+	 */
+	public Long getFundId() {
+		return fundId;
+	}
+
+	public void setFundId(Long fundId) {
+		this.fundId = fundId;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public BigDecimal getCirculatingUnits() {
+		return circulatingUnits;
+	}
+
+	public Integer getInvestorCount() {
+		return investorCount;
+	}
+
+	public BigDecimal getTotalValue() {
+		return totalValue;
+	}
+
+	public int getSheetIndex() {
+		return sheetIndex;
+	}
+
+	public int getRowNum() {
+		return rowNum;
+	}
+
+	public void setOrigin(int sheetIndex, int rowNum) {
+		this.sheetIndex = sheetIndex;
+		this.rowNum = rowNum;
+	}
+
+	/**
+	 * Sheet and row packed into one value that grows along the file.
+	 */
+	public long getPosition() {
+		return position(sheetIndex, rowNum);
+	}
+
+	public static long position(int sheetIndex, int rowNum) {
+		return ((long) sheetIndex << 32) | (rowNum & 0xFFFFFFFFL);
+	}
+}
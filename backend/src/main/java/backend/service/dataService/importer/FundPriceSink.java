@@ -0,0 +1,21 @@
+package backend.service.dataService.importer;
+
+/**
+ * Destination for parsed price rows. Implementations decide when rows are
+ * committed and report every commit to the listener they were opened with.
+ */
+public interface FundPriceSink extends AutoCloseable {
+
+	void accept(FundPriceRow row);
+
+	/**
+	 * Writes everything still pending and returns the totals of the whole sink.
+	 */
+	BatchResult finish();
+
+	/**
+	 * Releases resources, rolling back anything that was not committed yet.
+	 */
+	@Override
+	void close();
+}
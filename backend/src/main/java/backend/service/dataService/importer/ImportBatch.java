@@ -0,0 +1,35 @@
+package backend.service.dataService.importer;
+
+import java.util.List;
+
+/**
+ * A block of resolved rows travelling from a parser thread to a writer thread.
+ * Rows are in file order and seq numbers the batches of one source.
+ */
+class ImportBatch {
+
+	// Tells a writer thread that no more batches will come
+	static final ImportBatch END = new ImportBatch(null, -1, List.of());
+
+	private final SourceProgress progress;
+	private final long seq;
+	private final List<FundPriceRow> rows;
+
+	ImportBatch(SourceProgress progress, long seq, List<FundPriceRow> rows) {
+		this.progress = progress;
+		this.seq = seq;
+		this.rows = rows;
+	}
+
+	SourceProgress getProgress() {
+		return progress;
+	}
+
+	long getSeq() {
+		return seq;
+	}
+
+	List<FundPriceRow> getRows() {
+		return rows;
+	}
+}
@@ -0,0 +1,86 @@
+package backend.service.dataService.importer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import backend.service.dataService.entity.ImportCheckpoint;
+import backend.service.dataService.repository.ImportCheckpointRepository;
+
+/**
+ * Loads and stores the per-source checkpoints of the import pipeline. A source
+ * whose last run did not complete is resumed after its last committed row, as
+ * long as the file still has the same size and modification time.
+ */
+@Component
+public class ImportCheckpointService {
+
+	private final ImportCheckpointRepository repository;
+
+	@Value("${app.data.import.resume:true}")
+	private boolean resume;
+
+	public ImportCheckpointService(ImportCheckpointRepository repository) {
+		this.repository = repository;
+	}
+
+	SourceProgress begin(ImportSource source) {
+		Resource resource = source.getResource();
+		String key = resource.getDescription();
+		Long size = sizeOf(resource);
+		Long lastModified = lastModifiedOf(resource);
+
+		ImportCheckpoint cp = repository.findBySource(key).orElseGet(() -> {
+			ImportCheckpoint fresh = new ImportCheckpoint();
+			fresh.setSource(key);
+			return fresh;
+		});
+
+		boolean resumable = resume && cp.getId() != null && ImportCheckpoint.RUNNING.equals(cp.getStatus())
+				&& cp.getRowNum() >= 0 && size != null && Objects.equals(size, cp.getSourceSize())
+				&& Objects.equals(lastModified, cp.getSourceLastModified());
+
+		if (resumable) {
+			System.out.println("IMPORT: resuming " + source + " after sheet=" + cp.getSheetIndex() + " row="
+					+ cp.getRowNum() + " (" + cp.getRowsCommitted() + " rows already committed)");
+			return new SourceProgress(source, cp.getId(), FundPriceRow.position(cp.getSheetIndex(), cp.getRowNum()),
+					cp.getRowsCommitted(), cp.getBatchesCommitted(), repository);
+		}
+
+		cp.setSourceSize(size);
+		cp.setSourceLastModified(lastModified);
+		cp.setSheetIndex(-1);
+		cp.setRowNum(-1);
+		cp.setRowsCommitted(0);
+		cp.setBatchesCommitted(0);
+		cp.setStatus(ImportCheckpoint.RUNNING);
+		cp.setUpdatedAt(LocalDateTime.now());
+		cp = repository.save(cp);
+
+		return new SourceProgress(source, cp.getId(), -1, 0, 0, repository);
+	}
+
+	void complete(SourceProgress progress) {
+		repository.updateStatus(progress.getCheckpointId(), ImportCheckpoint.COMPLETED);
+	}
+
+	private static Long sizeOf(Resource resource) {
+		try {
+			return resource.contentLength();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static Long lastModifiedOf(Resource resource) {
+		try {
+			return resource.lastModified();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+}
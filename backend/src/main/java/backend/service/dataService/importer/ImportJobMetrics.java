@@ -0,0 +1,165 @@
+package backend.service.dataService.importer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of the current (or last) import job. Updated concurrently by
+ * parser and writer threads and read by the status endpoint.
+ */
+public class ImportJobMetrics {
+
+	public enum State {
+		IDLE, RUNNING, SUCCEEDED, FAILED
+	}
+
+	private final AtomicLong rowsParsed = new AtomicLong();
+	private final AtomicLong rowsSkipped = new AtomicLong();
+	private final AtomicLong rowsWritten = new AtomicLong();
+	private final AtomicLong rowsInserted = new AtomicLong();
+	private final AtomicLong duplicates = new AtomicLong();
+	private final AtomicLong fundsCreated = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+
+	private volatile State state = State.IDLE;
+	private volatile Instant startedAt;
+	private volatile Instant finishedAt;
+	private volatile String error;
+	private volatile List<String> sources = List.of();
+	// Rows the sources had on their last completed run, null when unknown
+	private volatile Long expectedRows;
+
+	public synchronized void start(List<String> sourceNames, Long expectedRows) {
+		rowsParsed.set(0);
+		rowsSkipped.set(0);
+		rowsWritten.set(0);
+		rowsInserted.set(0);
+		duplicates.set(0);
+		fundsCreated.set(0);
+		batches.set(0);
+		this.sources = List.copyOf(sourceNames);
+		this.expectedRows = expectedRows;
+		this.error = null;
+		this.finishedAt = null;
+		this.startedAt = Instant.now();
+		this.state = State.RUNNING;
+	}
+
+	public synchronized void succeed() {
+		finishedAt = Instant.now();
+		state = State.SUCCEEDED;
+	}
+
+	public synchronized void fail(Throwable t) {
+		finishedAt = Instant.now();
+		error = t.getClass().getSimpleName() + ": " + t.getMessage();
+		state = State.FAILED;
+	}
+
+	public void addRowsParsed(long count) {
+		rowsParsed.addAndGet(count);
+	}
+
+	public void addRowsSkipped(long count) {
+		rowsSkipped.addAndGet(count);
+	}
+
+	public void addFundsCreated(long count) {
+		fundsCreated.addAndGet(count);
+	}
+
+	/**
+	 * @return number of batches committed so far, including this one
+	 */
+	public long addCommit(BatchResult result) {
+		rowsWritten.addAndGet(result.getTotal());
+		rowsInserted.addAndGet(result.getInserted());
+		duplicates.addAndGet(result.getDuplicates());
+		return batches.incrementAndGet();
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public Instant getStartedAt() {
+		return startedAt;
+	}
+
+	public Instant getFinishedAt() {
+		return finishedAt;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public List<String> getSources() {
+		return sources;
+	}
+
+	public Long getExpectedRows() {
+		return expectedRows;
+	}
+
+	public long getRowsParsed() {
+		return rowsParsed.get();
+	}
+
+	public long getRowsSkipped() {
+		return rowsSkipped.get();
+	}
+
+	public long getRowsWritten() {
+		return rowsWritten.get();
+	}
+
+	public long getRowsInserted() {
+		return rowsInserted.get();
+	}
+
+	public long getDuplicates() {
+		return duplicates.get();
+	}
+
+	public long getFundsCreated() {
+		return fundsCreated.get();
+	}
+
+	public long getBatches() {
+		return batches.get();
+	}
+
+	public long getElapsedMillis() {
+		Instant start = startedAt;
+		if (start == null) {
+			return 0;
+		}
+		Instant end = finishedAt != null ? finishedAt : Instant.now();
+		return Duration.between(start, end).toMillis();
+	}
+
+	/**
+	 * Committed rows per second since the job started.
+	 */
+	public double getRowsPerSecond() {
+		long elapsed = getElapsedMillis();
+		return elapsed > 0 ? rowsWritten.get() * 1000.0 / elapsed : 0;
+	}
+
+	/**
+	 * Seconds until all expected rows are committed at the current rate, null
+	 * if there is nothing to base it on.
+	 */
+	public Long getEtaSeconds() {
+		Long expected = expectedRows;
+		double rate = getRowsPerSecond();
+		if (state != State.RUNNING || expected == null || rate <= 0) {
+			return null;
+		}
+		long remaining = Math.max(0, expected - rowsWritten.get());
+		return (long) Math.ceil(remaining / rate);
+	}
+}
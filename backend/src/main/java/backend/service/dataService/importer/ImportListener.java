@@ -0,0 +1,22 @@
+package backend.service.dataService.importer;
+
+/**
+ * Progress callbacks of an import run. Called from parser and writer threads.
+ */
+public interface ImportListener {
+
+	/**
+	 * Rows that were parsed and handed to the writers.
+	 */
+	void onRowsParsed(int count);
+
+	/**
+	 * Rows dropped on the parser side because their fund is already loaded
+	 * through that date.
+	 */
+	void onRowsSkipped(int count);
+
+	void onFundsCreated(int count);
+
+	void onCommit(BatchResult result);
+}
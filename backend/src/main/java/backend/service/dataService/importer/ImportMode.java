@@ -0,0 +1,14 @@
+package backend.service.dataService.importer;
+
+/**
+ * How parsed price rows reach fund_price_history, selected with
+ * app.data.import.mode.
+ */
+public enum ImportMode {
+
+	/** Multi-row INSERT ... ON CONFLICT DO NOTHING per batch. */
+	BATCH,
+
+	/** COPY into a staging table, then one INSERT ... SELECT per chunk. */
+	COPY
+}
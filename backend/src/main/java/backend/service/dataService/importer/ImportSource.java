@@ -0,0 +1,43 @@
+package backend.service.dataService.importer;
+
+import org.springframework.core.io.Resource;
+
+import backend.common.FundTypeEnum;
+
+/**
+ * One file to import together with the fund type its new funds are created
+ * with.
+ */
+public class ImportSource {
+
+	private final Resource resource;
+	private final FundTypeEnum fundType;
+	private final Long fundTypeId;
+
+	public ImportSource(Resource resource, FundTypeEnum fundType, Long fundTypeId) {
+		this.resource = resource;
+		this.fundType = fundType;
+		this.fundTypeId = fundTypeId;
+	}
+
+	public Resource getResource() {
+		return resource;
+	}
+
+	public FundTypeEnum getFundType() {
+		return fundType;
+	}
+
+	public Long getFundTypeId() {
+		return fundTypeId;
+	}
+
+	public String getName() {
+		return resource.getFilename() != null ? resource.getFilename() : resource.getDescription();
+	}
+
+	@Override
+	public String toString() {
+		return getName() + " (" + fundType + ")";
+	}
+}
@@ -0,0 +1,43 @@
+package backend.service.dataService.importer;
+
+/**
+ * Keeps fund_latest_price in step with fund_price_history. The writers wrap
+ * their INSERT into fund_price_history so the rows it actually inserted are
+ * also upserted into fund_latest_price, in the same statement and therefore
+ * the same transaction.
+ */
+final class LatestPriceProjection {
+
+	private static final String RETURNING = """
+
+			RETURNING fund_id, date, price, circulating_units, investor_count, total_value
+			""";
+
+	// Newest inserted row per fund, replacing the stored one only if it is newer.
+	// Rows are locked in fund_id order, so concurrent writers cannot deadlock here
+	private static final String UPSERT_FROM_INSERTED = """
+			INSERT INTO fund_latest_price
+			  (fund_id, date, price, circulating_units, investor_count, total_value, updated_at)
+			SELECT DISTINCT ON (fund_id)
+			  fund_id, date, price, circulating_units, investor_count, total_value, now()
+			FROM inserted
+			ORDER BY fund_id, date DESC
+			ON CONFLICT (fund_id) DO UPDATE
+			  SET date = EXCLUDED.date, price = EXCLUDED.price, circulating_units = EXCLUDED.circulating_units,
+			      investor_count = EXCLUDED.investor_count, total_value = EXCLUDED.total_value, updated_at = now()
+			  WHERE fund_latest_price.date < EXCLUDED.date
+			""";
+
+	private LatestPriceProjection() {
+	}
+
+	/**
+	 * Wraps an INSERT INTO fund_price_history ... ON CONFLICT DO NOTHING
+	 * statement. The result is a query returning one row with the number of
+	 * price rows inserted.
+	 */
+	static String insertAndProject(String insertSql) {
+		return "WITH inserted AS (\n" + insertSql + RETURNING + "),\nprojected AS (\n" + UPSERT_FROM_INSERTED
+				+ "RETURNING 1\n)\nSELECT count(*) FROM inserted";
+	}
+}
@@ -0,0 +1,100 @@
+package backend.service.dataService.importer;
+
+/**
+ * Exception-free parsing of decimal text into scaled longs, shared by the row
+ * decoders of the importers.
+ */
+final class NumberText {
+
+	// Returned by parseScaled for text that is not a plain decimal
+	static final long INVALID = Long.MIN_VALUE;
+
+	// Separator argument that matches no character
+	static final char NONE = '\0';
+
+	// Unscaled values longer than this would overflow a long
+	private static final int MAX_DIGITS = 18;
+
+	private NumberText() {
+	}
+
+	/**
+	 * Parses an optionally signed plain decimal ("-12.5", " 1.000,25 ") into its
+	 * value times 10^scale, rounding half up past the scale. Exponents are not
+	 * supported.
+	 *
+	 * @param decimalPoint character that starts the fraction, or {@link #NONE}
+	 * @param grouping     thousands separator that is skipped, or {@link #NONE}
+	 * @return the unscaled value, or {@link #INVALID}
+	 */
+	static long parseScaled(CharSequence text, int scale, char decimalPoint, char grouping) {
+		int start = 0;
+		int end = text.length();
+		while (start < end && Character.isWhitespace(text.charAt(start))) {
+			start++;
+		}
+		while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		if (start == end) {
+			return INVALID;
+		}
+
+		boolean negative = false;
+		char first = text.charAt(start);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			start++;
+		}
+
+		long value = 0;
+		int digits = 0;
+		int fractionDigits = -1; // -1 until the decimal point is seen
+		boolean roundUp = false;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == grouping) {
+				continue;
+			}
+			if (c == decimalPoint) {
+				if (fractionDigits >= 0) {
+					return INVALID;
+				}
+				fractionDigits = 0;
+				continue;
+			}
+			if (c < '0' || c > '9') {
+				return INVALID;
+			}
+			if (fractionDigits >= scale) {
+				// Only the first digit past the scale decides the rounding
+				if (fractionDigits == scale) {
+					roundUp = c >= '5';
+				}
+				fractionDigits++;
+				continue;
+			}
+			if (++digits > MAX_DIGITS) {
+				return INVALID;
+			}
+			value = value * 10 + (c - '0');
+			if (fractionDigits >= 0) {
+				fractionDigits++;
+			}
+		}
+		if (digits == 0) {
+			return INVALID;
+		}
+
+		for (int f = Math.max(fractionDigits, 0); f < scale; f++) {
+			if (++digits > MAX_DIGITS) {
+				return INVALID;
+			}
+			value *= 10;
+		}
+		if (roundUp) {
+			value++;
+		}
+		return negative ? -value : value;
+	}
+}
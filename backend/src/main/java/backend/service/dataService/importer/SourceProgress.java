@@ -0,0 +1,116 @@
+package backend.service.dataService.importer;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import backend.service.dataService.repository.ImportCheckpointRepository;
+
+/**
+ * Commit progress of one source during a run. Batches are numbered in file
+ * order when they are queued, but writer threads commit them in any order; the
+ * checkpoint only moves past a batch once every batch before it is committed
+ * too.
+ */
+class SourceProgress {
+
+	private final ImportSource source;
+	private final Long checkpointId;
+	// Rows at or before this position were committed by an earlier run
+	private final long resumeAfter;
+	private final ImportCheckpointRepository repository;
+
+	// Parser side, only touched by the source's parser thread
+	private long nextSeq = 0;
+
+	// Writer side
+	private final TreeMap<Long, ImportBatch> committedAhead = new TreeMap<>();
+	private long nextSeqToCommit = 0;
+	private long rowsCommitted;
+	private long batchesCommitted;
+
+	SourceProgress(ImportSource source, Long checkpointId, long resumeAfter, long rowsCommitted,
+			long batchesCommitted, ImportCheckpointRepository repository) {
+		this.source = source;
+		this.checkpointId = checkpointId;
+		this.resumeAfter = resumeAfter;
+		this.rowsCommitted = rowsCommitted;
+		this.batchesCommitted = batchesCommitted;
+		this.repository = repository;
+	}
+
+	ImportSource getSource() {
+		return source;
+	}
+
+	Long getCheckpointId() {
+		return checkpointId;
+	}
+
+	ImportBatch nextBatch(List<FundPriceRow> rows) {
+		return new ImportBatch(this, nextSeq++, rows);
+	}
+
+	/**
+	 * Called by a writer thread once all rows of the batch are committed.
+	 */
+	synchronized void committed(ImportBatch batch) {
+		committedAhead.put(batch.getSeq(), batch);
+
+		ImportBatch last = null;
+		ImportBatch next;
+		while ((next = committedAhead.remove(nextSeqToCommit)) != null) {
+			rowsCommitted += next.getRows().size();
+			batchesCommitted++;
+			nextSeqToCommit++;
+			last = next;
+		}
+
+		if (last != null) {
+			FundPriceRow lastRow = last.getRows().get(last.getRows().size() - 1);
+			repository.updatePosition(checkpointId, lastRow.getSheetIndex(), lastRow.getRowNum(), rowsCommitted,
+					batchesCommitted);
+		}
+	}
+
+	/**
+	 * Wraps the parser sink so rows an earlier run already committed are dropped
+	 * before fund resolution.
+	 */
+	FundPriceSink skippingCommitted(FundPriceSink target, ImportListener listener) {
+		if (resumeAfter < 0) {
+			return target;
+		}
+		return new FundPriceSink() {
+			private int skipped = 0;
+
+			@Override
+			public void accept(FundPriceRow row) {
+				if (row.getPosition() <= resumeAfter) {
+					skipped++;
+					return;
+				}
+				report();
+				target.accept(row);
+			}
+
+			@Override
+			public BatchResult finish() {
+				report();
+				return target.finish();
+			}
+
+			@Override
+			public void close() {
+				report();
+				target.close();
+			}
+
+			private void report() {
+				if (skipped > 0) {
+					listener.onRowsSkipped(skipped);
+					skipped = 0;
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,186 @@
+package backend.service.dataService.priceStore;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The whole price history of one fund as parallel primitive arrays sorted by
+ * date: epoch days, prices in millionths and amounts in hundredths, the
+ * scales of their fund_price_history columns, plus the daily log return of
+ * every price against the one before it. Immutable once built, so any number
+ * of request threads can read it without locking.
+ */
+public final class FundPriceSeries {
+
+	public static final int PRICE_SCALE = 6;
+	public static final int AMOUNT_SCALE = 2;
+
+	// Stand-ins for NULL columns
+	static final long NO_AMOUNT = Long.MIN_VALUE;
+	static final int NO_COUNT = Integer.MIN_VALUE;
+
+	private final long fundId;
+	private final String code;
+	private final String name;
+	private final String typeName;
+
+	private final int[] days;
+	private final long[] prices;
+	private final long[] units;
+	private final int[] investors;
+	private final long[] totalValues;
+	private final double[] logReturns;
+
+	private FundPriceSeries(Builder b) {
+		this.fundId = b.fundId;
+		this.code = b.code;
+		this.name = b.name;
+		this.typeName = b.typeName;
+		this.days = Arrays.copyOf(b.days, b.size);
+		this.prices = Arrays.copyOf(b.prices, b.size);
+		this.units = Arrays.copyOf(b.units, b.size);
+		this.investors = Arrays.copyOf(b.investors, b.size);
+		this.totalValues = Arrays.copyOf(b.totalValues, b.size);
+		this.logReturns = new double[b.size];
+		for (int i = 0; i < b.size; i++) {
+			logReturns[i] = i > 0 && prices[i] > 0 && prices[i - 1] > 0
+					? Math.log((double) prices[i] / prices[i - 1])
+					: Double.NaN;
+		}
+	}
+
+	public long getFundId() {
+		return fundId;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getTypeName() {
+		return typeName;
+	}
+
+	public int size() {
+		return days.length;
+	}
+
+	public boolean isEmpty() {
+		return days.length == 0;
+	}
+
+	public int lastIndex() {
+		return days.length - 1;
+	}
+
+	public long epochDay(int i) {
+		return days[i];
+	}
+
+	public LocalDate date(int i) {
+		return LocalDate.ofEpochDay(days[i]);
+	}
+
+	/** Price in millionths, the unscaled value of {@link #price(int)}. */
+	public long priceMicros(int i) {
+		return prices[i];
+	}
+
+	public BigDecimal price(int i) {
+		return BigDecimal.valueOf(prices[i], PRICE_SCALE);
+	}
+
+	public BigDecimal circulatingUnits(int i) {
+		return units[i] == NO_AMOUNT ? null : BigDecimal.valueOf(units[i], AMOUNT_SCALE);
+	}
+
+	public Integer investorCount(int i) {
+		return investors[i] == NO_COUNT ? null : investors[i];
+	}
+
+	public BigDecimal totalValue(int i) {
+		return totalValues[i] == NO_AMOUNT ? null : BigDecimal.valueOf(totalValues[i], AMOUNT_SCALE);
+	}
+
+	/**
+	 * ln(price / previous price), the return since the fund's previous trading
+	 * day. NaN for the first price and next to a price that is not positive.
+	 */
+	public double logReturn(int i) {
+		return logReturns[i];
+	}
+
+	/** @return index of the price on exactly this date, or -1 */
+	public int indexOf(LocalDate date) {
+		int i = Arrays.binarySearch(days, (int) date.toEpochDay());
+		return i >= 0 ? i : -1;
+	}
+
+	/** @return index of the first price on or after the date, size() if none */
+	public int ceilingIndex(LocalDate date) {
+		int i = Arrays.binarySearch(days, (int) date.toEpochDay());
+		return i >= 0 ? i : -i - 1;
+	}
+
+	/** @return index of the last price on or before the date, -1 if none */
+	public int floorIndex(LocalDate date) {
+		int i = Arrays.binarySearch(days, (int) date.toEpochDay());
+		return i >= 0 ? i : -i - 2;
+	}
+
+	/**
+	 * Collects one fund's rows, which must arrive in ascending date order.
+	 */
+	static final class Builder {
+
+		private final long fundId;
+		private final String code;
+		private final String name;
+		private final String typeName;
+
+		private int size;
+		private int[] days = new int[16];
+		private long[] prices = new long[16];
+		private long[] units = new long[16];
+		private int[] investors = new int[16];
+		private long[] totalValues = new long[16];
+
+		Builder(long fundId, String code, String name, String typeName) {
+			this.fundId = fundId;
+			this.code = code;
+			this.name = name;
+			this.typeName = typeName;
+		}
+
+		long fundId() {
+			return fundId;
+		}
+
+		/** NULL amounts and counts are passed as NO_AMOUNT and NO_COUNT. */
+		void add(int epochDay, long priceMicros, long unitsCents, int investorCount, long totalValueCents) {
+			if (size == days.length) {
+				int capacity = size + (size >> 1);
+				days = Arrays.copyOf(days, capacity);
+				prices = Arrays.copyOf(prices, capacity);
+				units = Arrays.copyOf(units, capacity);
+				investors = Arrays.copyOf(investors, capacity);
+				totalValues = Arrays.copyOf(totalValues, capacity);
+			}
+			days[size] = epochDay;
+			prices[size] = priceMicros;
+			units[size] = unitsCents;
+			investors[size] = investorCount;
+			totalValues[size] = totalValueCents;
+			size++;
+		}
+
+		FundPriceSeries build() {
+			return new FundPriceSeries(this);
+		}
+	}
+}
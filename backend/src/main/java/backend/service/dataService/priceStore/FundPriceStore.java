@@ -0,0 +1,256 @@
+package backend.service.dataService.priceStore;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import backend.service.dataService.FundPricesImportedEvent;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Every fund's price history held in memory as {@link FundPriceSeries}, for
+ * the read endpoints that would otherwise load FundPrice entities for each
+ * request. Prices only change when an import runs, so the store is loaded
+ * once the application is up and loaded again after every import that
+ * committed rows. A reload builds a new snapshot next to the old one and
+ * swaps it in, readers never wait.
+ * <p>
+ * Until the first load has finished (or with app.price-store.enabled=false)
+ * {@link #get} returns null and callers read from the database instead.
+ */
+@Component
+public class FundPriceStore {
+
+	private static final String FUNDS_SQL = """
+			SELECT f.id, f.code, f.name, t.name
+			FROM funds f
+			LEFT JOIN fund_types t ON t.id = f.type_id
+			""";
+
+	// Dates as epoch days and decimals as scaled longs, so no row allocates
+	private static final String HISTORY_SQL = """
+			SELECT fund_id, date - DATE '1970-01-01', (price * 1000000)::bigint,
+			       (circulating_units * 100)::bigint, investor_count, (total_value * 100)::bigint
+			FROM fund_price_history
+			ORDER BY fund_id, date
+			""";
+
+	private static final int FETCH_SIZE = 10_000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate snapshotTransaction;
+	private final ApplicationEventPublisher eventPublisher;
+
+	@Value("${app.price-store.enabled:true}")
+	private boolean enabled;
+
+	private volatile Snapshot snapshot;
+
+	private final AtomicBoolean reloadQueued = new AtomicBoolean();
+	private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "price-store");
+		t.setDaemon(true);
+		return t;
+	});
+
+	public FundPriceStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			ApplicationEventPublisher eventPublisher) {
+		this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+		// PostgreSQL only streams with a cursor inside a transaction; repeatable
+		// read keeps funds and history consistent with each other
+		this.snapshotTransaction = new TransactionTemplate(transactionManager);
+		this.snapshotTransaction.setReadOnly(true);
+		this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		this.eventPublisher = eventPublisher;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public boolean isLoaded() {
+		return snapshot != null;
+	}
+
+	/** @return the fund's series, or null if the fund or the store is not loaded */
+	public FundPriceSeries get(String code) {
+		Snapshot s = snapshot;
+		return s != null ? s.byCode.get(code) : null;
+	}
+
+	/** @return the fund's series, or null if the fund or the store is not loaded */
+	public FundPriceSeries get(Long fundId) {
+		Snapshot s = snapshot;
+		return s != null ? s.byId.get(fundId) : null;
+	}
+
+	/** @return every fund ordered by code, or null if the store is not loaded */
+	public List<FundPriceSeries> all() {
+		Snapshot s = snapshot;
+		return s != null ? s.byCodeOrder : null;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		reloadInBackground();
+	}
+
+	@EventListener
+	public void onFundPricesImported(FundPricesImportedEvent event) {
+		reloadInBackground();
+	}
+
+	/**
+	 * Queues a reload on the store's own thread. Calls that arrive while one is
+	 * still queued are folded into it.
+	 */
+	public void reloadInBackground() {
+		if (!enabled || !reloadQueued.compareAndSet(false, true)) {
+			return;
+		}
+		loader.submit(() -> {
+			reloadQueued.set(false);
+			try {
+				reload();
+			} catch (Exception e) {
+				System.out.println("PRICE STORE: reload failed, keeping the previous snapshot: " + e.getMessage());
+			}
+		});
+	}
+
+	/** Loads all funds and prices and swaps them in, on the calling thread. */
+	public void reload() {
+		long t0 = System.currentTimeMillis();
+		Snapshot loaded = snapshotTransaction.execute(status -> load());
+		snapshot = loaded;
+		System.out.println("PRICE STORE: loaded " + loaded.byId.size() + " funds, " + loaded.rows + " prices in "
+				+ (System.currentTimeMillis() - t0) + " ms");
+		eventPublisher.publishEvent(new FundPriceStoreReloadedEvent(loaded.byId.size(), loaded.rows));
+	}
+
+	/**
+	 * Loads every fund's series without keeping them, for a single pass over
+	 * all prices while the store itself is disabled.
+	 *
+	 * @return every fund ordered by code
+	 */
+	public List<FundPriceSeries> loadDetached() {
+		return snapshotTransaction.execute(status -> load()).byCodeOrder;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		loader.shutdownNow();
+	}
+
+	private Snapshot load() {
+		Map<Long, String[]> funds = new HashMap<>();
+		jdbcTemplate.query(FUNDS_SQL, rs -> {
+			funds.put(rs.getLong(1), new String[] { rs.getString(2), rs.getString(3), rs.getString(4) });
+		});
+
+		SeriesCollector collector = new SeriesCollector(funds);
+		jdbcTemplate.query(HISTORY_SQL, collector::add);
+		return collector.finish();
+	}
+
+	private static final class SeriesCollector {
+
+		private final Map<Long, String[]> funds;
+		private final Map<Long, FundPriceSeries> byId = new HashMap<>();
+		private FundPriceSeries.Builder current;
+		private long rows;
+
+		SeriesCollector(Map<Long, String[]> funds) {
+			this.funds = funds;
+		}
+
+		void add(ResultSet rs) throws SQLException {
+			long fundId = rs.getLong(1);
+			if (current == null || current.fundId() != fundId) {
+				flush();
+				current = builderFor(fundId);
+			}
+
+			int day = rs.getInt(2);
+			long price = rs.getLong(3);
+			long units = rs.getLong(4);
+			if (rs.wasNull()) {
+				units = FundPriceSeries.NO_AMOUNT;
+			}
+			int investors = rs.getInt(5);
+			if (rs.wasNull()) {
+				investors = FundPriceSeries.NO_COUNT;
+			}
+			long total = rs.getLong(6);
+			if (rs.wasNull()) {
+				total = FundPriceSeries.NO_AMOUNT;
+			}
+			current.add(day, price, units, investors, total);
+			rows++;
+		}
+
+		Snapshot finish() {
+			flush();
+			// Funds without any price still resolve, with an empty series
+			for (Long fundId : funds.keySet()) {
+				if (!byId.containsKey(fundId)) {
+					byId.put(fundId, builderFor(fundId).build());
+				}
+			}
+			return new Snapshot(byId.values(), rows);
+		}
+
+		private FundPriceSeries.Builder builderFor(long fundId) {
+			String[] fund = funds.getOrDefault(fundId, new String[3]);
+			return new FundPriceSeries.Builder(fundId, fund[0], fund[1], fund[2]);
+		}
+
+		private void flush() {
+			if (current != null) {
+				byId.put(current.fundId(), current.build());
+				current = null;
+			}
+		}
+	}
+
+	private static final class Snapshot {
+
+		final Map<Long, FundPriceSeries> byId = new HashMap<>();
+		final Map<String, FundPriceSeries> byCode = new HashMap<>();
+		final List<FundPriceSeries> byCodeOrder;
+		final long rows;
+
+		Snapshot(Collection<FundPriceSeries> series, long rows) {
+			for (FundPriceSeries s : series) {
+				byId.put(s.getFundId(), s);
+				if (s.getCode() != null) {
+					byCode.put(s.getCode(), s);
+				}
+			}
+			List<FundPriceSeries> ordered = new ArrayList<>(byCode.values());
+			ordered.sort(Comparator.comparing(FundPriceSeries::getCode));
+			this.byCodeOrder = List.copyOf(ordered);
+			this.rows = rows;
+		}
+	}
+}
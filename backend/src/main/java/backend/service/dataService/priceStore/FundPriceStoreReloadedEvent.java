@@ -0,0 +1,8 @@
+package backend.service.dataService.priceStore;
+
+/**
+ * Published by {@link FundPriceStore} once a new snapshot is in place, so
+ * results computed from the previous one can be dropped.
+ */
+public record FundPriceStoreReloadedEvent(int funds, long prices) {
+}
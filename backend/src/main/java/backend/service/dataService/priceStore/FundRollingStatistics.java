@@ -0,0 +1,89 @@
+package backend.service.dataService.priceStore;
+
+import java.time.LocalDate;
+
+/**
+ * Trailing returns, volatility and drawdown of one fund as of its latest
+ * price, all in percent. Periods are calendar periods ending at that price
+ * and start from the last price on or before their first day; a return is
+ * null when the fund's history does not reach back that far.
+ * <p>
+ * Volatility is the sample standard deviation of the daily log returns inside
+ * the period, annualised over 252 trading days. Max drawdown is the deepest
+ * fall from a running peak within the last year, zero or negative. Both use
+ * whatever part of the period the fund has prices for, and are null below two
+ * returns or two prices.
+ */
+public record FundRollingStatistics(LocalDate asOfDate, Double return1w, Double return1m, Double return3m,
+		Double return1y, Double returnYtd, Double volatility1m, Double volatility1y, Double maxDrawdown1y) {
+
+	private static final double TRADING_DAYS_PER_YEAR = 252;
+
+	/** @return the fund's statistics, or null for a fund without prices */
+	public static FundRollingStatistics of(FundPriceSeries series) {
+		if (series.isEmpty()) {
+			return null;
+		}
+		int last = series.lastIndex();
+		LocalDate asOf = series.date(last);
+
+		int oneYearAgo = series.floorIndex(asOf.minusYears(1));
+		int endOfLastYear = series.floorIndex(LocalDate.of(asOf.getYear() - 1, 12, 31));
+
+		return new FundRollingStatistics(asOf,
+				change(series, series.floorIndex(asOf.minusWeeks(1)), last),
+				change(series, series.floorIndex(asOf.minusMonths(1)), last),
+				change(series, series.floorIndex(asOf.minusMonths(3)), last),
+				change(series, oneYearAgo, last),
+				change(series, endOfLastYear, last),
+				volatility(series, asOf.minusMonths(1), last),
+				volatility(series, asOf.minusYears(1), last),
+				maxDrawdown(series, Math.max(oneYearAgo, 0), last));
+	}
+
+	private static Double change(FundPriceSeries series, int from, int to) {
+		if (from < 0 || series.priceMicros(from) <= 0) {
+			return null;
+		}
+		return ((double) series.priceMicros(to) / series.priceMicros(from) - 1) * 100;
+	}
+
+	// Returns of the trading days after the period's first day
+	private static Double volatility(FundPriceSeries series, LocalDate periodStart, int last) {
+		int n = 0;
+		double mean = 0;
+		double squares = 0;
+		for (int i = Math.max(series.floorIndex(periodStart) + 1, 1); i <= last; i++) {
+			double r = series.logReturn(i);
+			if (Double.isNaN(r)) {
+				continue;
+			}
+			// Welford's running mean and sum of squared deviations
+			n++;
+			double delta = r - mean;
+			mean += delta / n;
+			squares += delta * (r - mean);
+		}
+		if (n < 2) {
+			return null;
+		}
+		return Math.sqrt(squares / (n - 1) * TRADING_DAYS_PER_YEAR) * 100;
+	}
+
+	private static Double maxDrawdown(FundPriceSeries series, int from, int last) {
+		if (from >= last) {
+			return null;
+		}
+		long peak = 0;
+		double deepest = 0;
+		for (int i = from; i <= last; i++) {
+			long price = series.priceMicros(i);
+			if (price > peak) {
+				peak = price;
+			} else if (peak > 0) {
+				deepest = Math.min(deepest, (double) price / peak - 1);
+			}
+		}
+		return deepest * 100;
+	}
+}
@@ -0,0 +1,28 @@
+package backend.service.dataService.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import backend.service.dataService.entity.FundImportWatermark;
+
+public interface FundImportWatermarkRepository extends JpaRepository<FundImportWatermark, Long> {
+
+	/**
+	 * Moves every fund's watermark to its latest stored price date, as recorded
+	 * in fund_latest_price. Only called after an import run finished without
+	 * errors, so no gaps can hide below a watermark.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = """
+			INSERT INTO fund_import_watermarks (fund_id, loaded_through, updated_at)
+			SELECT fund_id, date, now()
+			FROM fund_latest_price
+			ON CONFLICT (fund_id) DO UPDATE
+			  SET loaded_through = EXCLUDED.loaded_through, updated_at = now()
+			  WHERE fund_import_watermarks.loaded_through < EXCLUDED.loaded_through
+			""", nativeQuery = true)
+	int advanceToLatestPrices();
+}
@@ -0,0 +1,61 @@
+package backend.service.dataService.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import backend.service.dataService.entity.FundLatestPrice;
+
+public interface FundLatestPriceRepository
+		extends JpaRepository<FundLatestPrice, Long>, JpaSpecificationExecutor<FundLatestPrice> {
+
+	/**
+	 * Every fund with its type and latest price; the price is null for funds
+	 * without any history.
+	 *
+	 * @return rows of [Fund, FundLatestPrice]
+	 */
+	@Query("""
+			SELECT f, lp
+			FROM Fund f
+			LEFT JOIN FETCH f.type t
+			LEFT JOIN FundLatestPrice lp ON lp.fund = f
+			""")
+	List<Object[]> findAllFundsWithLatestPrice();
+
+	@Query("""
+			SELECT lp
+			FROM FundLatestPrice lp
+			JOIN FETCH lp.fund f
+			LEFT JOIN FETCH f.type t
+			WHERE lp.price BETWEEN :minPrice AND :maxPrice
+			""")
+	List<FundLatestPrice> findByPriceBetweenWithFund(@Param("minPrice") BigDecimal minPrice,
+			@Param("maxPrice") BigDecimal maxPrice);
+
+	/**
+	 * Fills the table from fund_price_history, for databases that had prices
+	 * before the table existed.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = """
+			INSERT INTO fund_latest_price
+			  (fund_id, date, price, circulating_units, investor_count, total_value, updated_at)
+			SELECT DISTINCT ON (fund_id)
+			  fund_id, date, price, circulating_units, investor_count, total_value, now()
+			FROM fund_price_history
+			ORDER BY fund_id, date DESC
+			ON CONFLICT (fund_id) DO UPDATE
+			  SET date = EXCLUDED.date, price = EXCLUDED.price, circulating_units = EXCLUDED.circulating_units,
+			      investor_count = EXCLUDED.investor_count, total_value = EXCLUDED.total_value, updated_at = now()
+			  WHERE fund_latest_price.date <= EXCLUDED.date
+			""", nativeQuery = true)
+	int rebuildFromHistory();
+}
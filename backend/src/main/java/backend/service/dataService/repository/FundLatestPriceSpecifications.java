@@ -0,0 +1,117 @@
+package backend.service.dataService.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import backend.frontendModels.RequestModels.FundSearchRequest;
+import backend.service.dataService.entity.Fund;
+import backend.service.dataService.entity.FundLatestPrice;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Builds the fund screener query over fund_latest_price: every filter of a
+ * {@link FundSearchRequest} that is set becomes one predicate of a single
+ * WHERE clause, and the result is ordered by the requested column with the
+ * fund id as tie-break so pages never overlap.
+ */
+public final class FundLatestPriceSpecifications {
+
+	// Turkish letters and the ASCII ones they fold to, as in search.TurkishText:
+	// applied to both the name column and the query, so "is", "IS" and "İŞ"
+	// all match İŞ, and "ipb" matches IPB
+	private static final String FOLD_FROM = "ıİîÎìíïşŞğĞçÇöÖôüÜûÛâÂàáéèê";
+	private static final String FOLD_TO = "IIIIIIISSGGCCOOOUUUUAAAAEEE";
+
+	private FundLatestPriceSpecifications() {
+	}
+
+	/**
+	 * @param sortBy    one of code, name, date, price, totalValue,
+	 *                  circulatingUnits, investorCount
+	 * @param ascending sort direction
+	 */
+	public static Specification<FundLatestPrice> screen(FundSearchRequest request, String sortBy, boolean ascending) {
+		return (root, query, cb) -> {
+			// The count query of a page must not fetch or order
+			boolean counting = Long.class == query.getResultType() || long.class == query.getResultType();
+
+			Join<FundLatestPrice, Fund> fund;
+			if (counting) {
+				fund = root.join("fund");
+			} else {
+				@SuppressWarnings("unchecked")
+				Join<FundLatestPrice, Fund> fetched = (Join<FundLatestPrice, Fund>) root.<FundLatestPrice, Fund>fetch("fund");
+				fetched.fetch("type", JoinType.LEFT);
+				fund = fetched;
+			}
+
+			List<Predicate> predicates = new ArrayList<>();
+
+			String name = request.getName();
+			if (name != null && !name.isBlank()) {
+				// Codes are upper case ASCII, names are folded like the query
+				String pattern = "%" + escapeLike(fold(name.trim())) + "%";
+				Expression<String> foldedName = cb.upper(cb.function("translate", String.class, fund.get("name"),
+						cb.literal(FOLD_FROM), cb.literal(FOLD_TO)));
+				predicates.add(cb.or(cb.like(foldedName, pattern, '\\'), cb.like(fund.get("code"), pattern, '\\')));
+			}
+
+			between(cb, predicates, root.get("price"), request.getMinPrice(), request.getMaxPrice());
+			between(cb, predicates, root.get("totalValue"), request.getMinValue(), request.getMaxValue());
+			between(cb, predicates, root.get("circulatingUnits"), toDecimal(request.getMinUnits()),
+					toDecimal(request.getMaxUnits()));
+			between(cb, predicates, root.get("investorCount"), request.getMinInvestors(), request.getMaxInvestors());
+
+			if (!counting) {
+				Expression<?> sortKey = switch (sortBy) {
+				case "code" -> fund.get("code");
+				case "name" -> fund.get("name");
+				default -> root.get(sortBy);
+				};
+				Path<Long> id = root.get("fundId");
+				List<Order> order = List.of(ascending ? cb.asc(sortKey) : cb.desc(sortKey), cb.asc(id));
+				query.orderBy(order);
+			}
+
+			return cb.and(predicates.toArray(new Predicate[0]));
+		};
+	}
+
+	private static void between(CriteriaBuilder cb, List<Predicate> predicates,
+			Expression<? extends Number> column, Number min, Number max) {
+		if (min != null) {
+			predicates.add(cb.ge(column, min));
+		}
+		if (max != null) {
+			predicates.add(cb.le(column, max));
+		}
+	}
+
+	private static BigDecimal toDecimal(Long value) {
+		return value != null ? BigDecimal.valueOf(value) : null;
+	}
+
+	private static String fold(String value) {
+		StringBuilder sb = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			int k = FOLD_FROM.indexOf(c);
+			sb.append(k >= 0 ? FOLD_TO.charAt(k) : c);
+		}
+		return sb.toString().toUpperCase(Locale.ROOT);
+	}
+
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
@@ -1,23 +1,23 @@
 package backend.service.dataService.repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
-import org.springframework.transaction.annotation.Transactional;
 
 import backend.service.dataService.entity.Fund;
 import backend.service.dataService.entity.FundPrice;
+import jakarta.persistence.QueryHint;
 
 public interface FundPriceRepository extends JpaRepository<FundPrice, Integer> {
 
-	Optional<FundPrice> findFirstByFundOrderByDateDesc(Fund fund);
-
 	@Query("""
 			  SELECT fp
 			  FROM FundPrice fp
@@ -28,70 +28,68 @@ public interface FundPriceRepository extends JpaRepository<FundPrice, Integer> {
 			""")
 	List<FundPrice> findByDateWithFund(@Param("date") LocalDate date);
 
-	@Query("""
-			  SELECT fp
-			  FROM FundPrice fp
-			  JOIN FETCH fp.fund f
-			  LEFT JOIN FETCH f.type t
-			  WHERE fp.date = :date
-			    AND f.code = :code
-			""")
-	Optional<FundPrice> findOneByCodeAndDateWithFund(@Param("code") String code, @Param("date") LocalDate date);
-
 	boolean existsByFundAndDate(Fund fund, LocalDate date);
 
 	List<FundPrice> findByFundAndDateBetweenOrderByDate(Fund fund, LocalDate startDate, LocalDate endDate);
 
 	List<FundPrice> findByFundOrderByDate(Fund fund);
 
-	Optional<FundPrice> findFirstByFundAndDateBetweenOrderByDateAsc(Fund fund, LocalDate startDate, LocalDate endDate);
+	// One keyset page of a fund's history, the page size comes from the Pageable
+	List<FundPrice> findByFundAndDateBetweenOrderByDate(Fund fund, LocalDate startDate, LocalDate endDate,
+			Pageable page);
 
 	/**
-	 * Funds that have a price on BOTH startDate and endDate. We only want funds
-	 * that are present on both boundary days.
+	 * Streams a fund's history through a cursor. Must be consumed inside a
+	 * transaction, and entities should be detached once used so the
+	 * persistence context does not grow with the history.
 	 */
-	@Query("SELECT f FROM Fund f " + "WHERE EXISTS (" + "   SELECT 1 FROM FundPrice fp1 "
-			+ "   WHERE fp1.fund = f AND fp1.date = :startDate" + ") " + "AND EXISTS ("
-			+ "   SELECT 1 FROM FundPrice fp2 " + "   WHERE fp2.fund = f AND fp2.date = :endDate" + ")")
-	List<Fund> findFundsWithPricesOnBothDates(@Param("startDate") LocalDate startDate,
-			@Param("endDate") LocalDate endDate);
+	@QueryHints({ @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true") })
+	Stream<FundPrice> streamByFundAndDateBetweenOrderByDate(Fund fund, LocalDate startDate, LocalDate endDate);
 
-	Optional<FundPrice> findByFundAndDate(Fund fund, LocalDate date);
+	Optional<FundPrice> findFirstByFundAndDateBetweenOrderByDateAsc(Fund fund, LocalDate startDate, LocalDate endDate);
 
-	@Query("""
-			SELECT fp
-			FROM FundPrice fp
-			WHERE fp.date = (
-			    SELECT MAX(fp2.date)
-			    FROM FundPrice fp2
-			    WHERE fp2.fund = fp.fund
-			)
+	Optional<FundPrice> findFirstByFundAndDateBeforeOrderByDateDesc(Fund fund, LocalDate date);
+
+	Optional<FundPrice> findFirstByFundAndDateBetweenOrderByDateDesc(Fund fund, LocalDate startDate, LocalDate endDate);
+
+	// Shared part of the ranking queries below: the end-date price row of every
+	// fund together with its start-date price, in one join
+	String CHANGE_BETWEEN_DATES = """
+			SELECT e, s.price
+			FROM FundPrice e
+			JOIN FETCH e.fund f
+			LEFT JOIN FETCH f.type t
+			JOIN FundPrice s ON s.fund = f AND s.date = :startDate
+			WHERE e.date = :endDate
+			  AND s.price > 0
+			  AND (:typeName IS NULL OR t.name = :typeName)
+			""";
+
+	/**
+	 * Funds whose price rose between the two dates, largest relative change
+	 * first; the page decides how many.
+	 *
+	 * @return rows of [FundPrice on endDate, BigDecimal price on startDate]
+	 */
+	@Query(CHANGE_BETWEEN_DATES + """
+			  AND e.price > s.price
+			ORDER BY (e.price - s.price) / s.price DESC, f.code
 			""")
-	List<FundPrice> findLatestPriceForAllFunds();
+	List<Object[]> findTopGainers(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+			@Param("typeName") String typeName, Pageable page);
 
-	@Query("""
-			SELECT fp
-			FROM FundPrice fp
-			WHERE fp.date = (
-			    SELECT MAX(fp2.date)
-			    FROM FundPrice fp2
-			    WHERE fp2.fund = fp.fund
-			)
-			AND fp.price BETWEEN :minPrice AND :maxPrice
+	/**
+	 * Funds whose price fell between the two dates, largest drop first.
+	 *
+	 * @return rows of [FundPrice on endDate, BigDecimal price on startDate]
+	 */
+	@Query(CHANGE_BETWEEN_DATES + """
+			  AND e.price < s.price
+			ORDER BY (e.price - s.price) / s.price ASC, f.code
 			""")
-	List<FundPrice> findLatestPriceInRange(@Param("minPrice") BigDecimal minPrice,
-			@Param("maxPrice") BigDecimal maxPrice);
-
-	@Modifying
-	@Transactional
-	@Query(value = """
-			INSERT INTO fund_price_history
-			  (fund_id, date, price, circulating_units, investor_count, total_value, created_at)
-			VALUES
-			  (:fundId, :date, :price, :units, :investors, :totalVal, now())
-			ON CONFLICT (fund_id, date) DO NOTHING
-			""", nativeQuery = true)
-	int insertIgnoreDuplicate(@Param("fundId") Long fundId, @Param("date") LocalDate date,
-			@Param("price") BigDecimal price, @Param("units") BigDecimal units, @Param("investors") Integer investors,
-			@Param("totalVal") BigDecimal totalVal);
+	List<Object[]> findTopLosers(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+			@Param("typeName") String typeName, Pageable page);
+
+	Optional<FundPrice> findByFundAndDate(Fund fund, LocalDate date);
 }
@@ -1,12 +1,20 @@
 package backend.service.dataService.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import backend.service.dataService.entity.Fund;
 
 public interface FundRepository extends JpaRepository<Fund, Long> {
 
 	Optional<Fund> findByCode(String code);
+
+	/**
+	 * [code, id] pairs of every fund, without loading the entities.
+	 */
+	@Query("SELECT f.code, f.id FROM Fund f")
+	List<Object[]> findAllCodesAndIds();
 }
@@ -0,0 +1,23 @@
+package backend.service.dataService.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import backend.service.dataService.entity.FundStatistics;
+
+public interface FundStatisticsRepository
+		extends JpaRepository<FundStatistics, Long>, JpaSpecificationExecutor<FundStatistics> {
+
+	@Query("""
+			SELECT s
+			FROM FundStatistics s
+			JOIN FETCH s.fund f
+			LEFT JOIN FETCH f.type t
+			WHERE f.code = :code
+			""")
+	Optional<FundStatistics> findByFundCodeWithFund(@Param("code") String code);
+}
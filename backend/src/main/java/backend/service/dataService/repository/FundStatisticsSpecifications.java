@@ -0,0 +1,96 @@
+package backend.service.dataService.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import backend.frontendModels.RequestModels.FundStatisticsRequest;
+import backend.service.dataService.entity.Fund;
+import backend.service.dataService.entity.FundStatistics;
+import backend.service.dataService.entity.FundType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Builds the query behind the fund statistics screener: one predicate per
+ * range of a {@link FundStatisticsRequest} that is set, ordered by the
+ * requested column with the fund id as tie-break. Funds without a value for
+ * the sort column come last in either direction.
+ */
+public final class FundStatisticsSpecifications {
+
+	private FundStatisticsSpecifications() {
+	}
+
+	/**
+	 * @param sortBy    code, name or a FundStatistics property such as return1y
+	 * @param ascending sort direction
+	 */
+	public static Specification<FundStatistics> screen(FundStatisticsRequest request, String sortBy,
+			boolean ascending) {
+		return (root, query, cb) -> {
+			// The count query of a page must not fetch or order
+			boolean counting = Long.class == query.getResultType() || long.class == query.getResultType();
+
+			Join<FundStatistics, Fund> fund;
+			Join<Fund, FundType> type;
+			if (counting) {
+				fund = root.join("fund");
+				type = fund.join("type", JoinType.LEFT);
+			} else {
+				@SuppressWarnings("unchecked")
+				Join<FundStatistics, Fund> fetched = (Join<FundStatistics, Fund>) root.<FundStatistics, Fund>fetch("fund");
+				@SuppressWarnings("unchecked")
+				Join<Fund, FundType> fetchedType = (Join<Fund, FundType>) fetched.<Fund, FundType>fetch("type",
+						JoinType.LEFT);
+				fund = fetched;
+				type = fetchedType;
+			}
+
+			List<Predicate> predicates = new ArrayList<>();
+			if (request.getType() != null) {
+				predicates.add(cb.equal(type.get("name"), request.getType().getName()));
+			}
+
+			between(cb, predicates, root.get("return1w"), request.getMinReturn1w(), request.getMaxReturn1w());
+			between(cb, predicates, root.get("return1m"), request.getMinReturn1m(), request.getMaxReturn1m());
+			between(cb, predicates, root.get("return3m"), request.getMinReturn3m(), request.getMaxReturn3m());
+			between(cb, predicates, root.get("return1y"), request.getMinReturn1y(), request.getMaxReturn1y());
+			between(cb, predicates, root.get("returnYtd"), request.getMinReturnYtd(), request.getMaxReturnYtd());
+			between(cb, predicates, root.get("volatility1m"), request.getMinVolatility1m(),
+					request.getMaxVolatility1m());
+			between(cb, predicates, root.get("volatility1y"), request.getMinVolatility1y(),
+					request.getMaxVolatility1y());
+			between(cb, predicates, root.get("maxDrawdown1y"), request.getMinMaxDrawdown1y(),
+					request.getMaxMaxDrawdown1y());
+
+			if (!counting) {
+				Expression<?> sortKey = switch (sortBy) {
+				case "code" -> fund.get("code");
+				case "name" -> fund.get("name");
+				default -> root.get(sortBy);
+				};
+				Path<Long> id = root.get("fundId");
+				query.orderBy(cb.asc(cb.selectCase().when(cb.isNull(sortKey), 1).otherwise(0)),
+						ascending ? cb.asc(sortKey) : cb.desc(sortKey), cb.asc(id));
+			}
+
+			return cb.and(predicates.toArray(new Predicate[0]));
+		};
+	}
+
+	private static void between(CriteriaBuilder cb, List<Predicate> predicates, Expression<Double> column,
+			Double min, Double max) {
+		if (min != null) {
+			predicates.add(cb.ge(column, min));
+		}
+		if (max != null) {
+			predicates.add(cb.le(column, max));
+		}
+	}
+}
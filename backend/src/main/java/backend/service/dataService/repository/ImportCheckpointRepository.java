@@ -0,0 +1,32 @@
+package backend.service.dataService.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import backend.service.dataService.entity.ImportCheckpoint;
+
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, Long> {
+
+	Optional<ImportCheckpoint> findBySource(String source);
+
+	@Modifying
+	@Transactional
+	@Query(value = """
+			UPDATE import_checkpoints
+			SET sheet_index = :sheetIndex, row_num = :rowNum, rows_committed = :rowsCommitted,
+			    batches_committed = :batchesCommitted, updated_at = now()
+			WHERE id = :id
+			""", nativeQuery = true)
+	int updatePosition(@Param("id") Long id, @Param("sheetIndex") int sheetIndex, @Param("rowNum") int rowNum,
+			@Param("rowsCommitted") long rowsCommitted, @Param("batchesCommitted") long batchesCommitted);
+
+	@Modifying
+	@Transactional
+	@Query(value = "UPDATE import_checkpoints SET status = :status, updated_at = now() WHERE id = :id", nativeQuery = true)
+	int updateStatus(@Param("id") Long id, @Param("status") String status);
+}
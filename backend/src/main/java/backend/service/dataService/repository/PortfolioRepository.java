@@ -1,11 +1,51 @@
 package backend.service.dataService.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import backend.service.dataService.entity.Portfolio;
+import jakarta.persistence.LockModeType;
 
 public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
 	List<Portfolio> findByUserId(Long userId);
+
+	// The user's portfolios with their funds in one query, instead of one
+	// query per portfolio and per fund
+	@Query("""
+			SELECT DISTINCT p
+			FROM Portfolio p
+			LEFT JOIN FETCH p.funds pf
+			LEFT JOIN FETCH pf.fund f
+			LEFT JOIN FETCH f.type t
+			WHERE p.userId = :userId
+			ORDER BY p.id
+			""")
+	List<Portfolio> findByUserIdWithFunds(@Param("userId") Long userId);
+
+	@Query("""
+			SELECT p
+			FROM Portfolio p
+			LEFT JOIN FETCH p.funds pf
+			LEFT JOIN FETCH pf.fund f
+			LEFT JOIN FETCH f.type t
+			WHERE p.id = :id
+			""")
+	Optional<Portfolio> findByIdWithFunds(@Param("id") Long id);
+
+	// Same, holding the portfolio's row lock until the transaction ends, so
+	// its holdings cannot change while its daily values are written
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+			SELECT p
+			FROM Portfolio p
+			LEFT JOIN FETCH p.funds pf
+			LEFT JOIN FETCH pf.fund f
+			WHERE p.id = :id
+			""")
+	Optional<Portfolio> findByIdWithFundsForUpdate(@Param("id") Long id);
 }
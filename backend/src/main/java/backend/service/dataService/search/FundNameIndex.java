@@ -0,0 +1,236 @@
+package backend.service.dataService.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import backend.service.dataService.FundPricesImportedEvent;
+
+/**
+ * In-memory trigram index over every fund's code and name, for typeahead.
+ * Text is folded by {@link TurkishText}, and each word contributes the
+ * trigrams of itself padded like pg_trgm does ("  w", " wo", "wor", ...,
+ * "rd "). A query's last word may still be being typed, so it contributes no
+ * trailing trigram and matches any word it starts.
+ * <p>
+ * A fund matches when it shares at least half of the query's trigrams, or
+ * when its code, its name or one of its name's words starts with the query.
+ * Matches are ranked by the share of the query found plus a boost for an
+ * exact code, a code prefix, a name prefix and a word prefix, in that order,
+ * and a little more when the query is a whole word of the name. Shorter
+ * names win ties.
+ * <p>
+ * Built when the application is up and again after an import that created
+ * funds; a rebuild swaps in a new index, searches never wait.
+ */
+@Component
+public class FundNameIndex {
+
+	private static final String FUNDS_SQL = """
+			SELECT f.code, f.name, t.name
+			FROM funds f
+			LEFT JOIN fund_types t ON t.id = f.type_id
+			ORDER BY f.code
+			""";
+
+	// The padding space, a-z and 0-9
+	private static final int ALPHABET = 37;
+	private static final int TRIGRAMS = ALPHABET * ALPHABET * ALPHABET;
+
+	// Share of the query's trigrams a fund needs unless it matches a prefix
+	private static final double MIN_COVERAGE = 0.5;
+
+	private static final double EXACT_CODE_BOOST = 3;
+	private static final double CODE_PREFIX_BOOST = 2;
+	private static final double NAME_PREFIX_BOOST = 1;
+	private static final double WORD_PREFIX_BOOST = 0.5;
+	private static final double WHOLE_WORD_BOOST = 0.25;
+
+	public record Match(String code, String name, String typeName, double score) {
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private volatile Index index;
+
+	public FundNameIndex(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		rebuild();
+	}
+
+	@EventListener
+	public void onFundPricesImported(FundPricesImportedEvent event) {
+		if (event.fundsCreated() > 0) {
+			rebuild();
+		}
+	}
+
+	public void rebuild() {
+		build();
+	}
+
+	private synchronized Index build() {
+		long t0 = System.currentTimeMillis();
+		List<String[]> funds = jdbcTemplate.query(FUNDS_SQL,
+				(rs, rowNum) -> new String[] { rs.getString(1), rs.getString(2), rs.getString(3) });
+		Index built = new Index(funds);
+		index = built;
+		System.out.println("FUND INDEX: indexed " + funds.size() + " funds in " + (System.currentTimeMillis() - t0)
+				+ " ms");
+		return built;
+	}
+
+	/**
+	 * @return up to limit funds matching the query, best first; empty for a
+	 *         query without letters or digits
+	 */
+	public List<Match> search(String query, int limit) {
+		Index idx = index;
+		if (idx == null) {
+			idx = build();
+		}
+		return idx.search(query, limit);
+	}
+
+	private static final class Index {
+
+		private final String[][] funds;
+		private final String[] foldedCodes;
+		// Folded names with a space on both ends, for word matches
+		private final String[] foldedNames;
+		// Ordinals of the funds containing each trigram, ascending
+		private final int[][] postings = new int[TRIGRAMS][];
+
+		Index(List<String[]> rows) {
+			int n = rows.size();
+			funds = rows.toArray(new String[0][]);
+			foldedCodes = new String[n];
+			foldedNames = new String[n];
+
+			int[][] trigramsOfFund = new int[n][];
+			int[] counts = new int[TRIGRAMS];
+			for (int f = 0; f < n; f++) {
+				foldedCodes[f] = TurkishText.fold(funds[f][0]);
+				String name = TurkishText.fold(funds[f][1]);
+				foldedNames[f] = " " + name + " ";
+				trigramsOfFund[f] = trigrams(foldedCodes[f] + " " + name, true);
+				for (int t : trigramsOfFund[f]) {
+					counts[t]++;
+				}
+			}
+
+			for (int t = 0; t < TRIGRAMS; t++) {
+				if (counts[t] > 0) {
+					postings[t] = new int[counts[t]];
+					counts[t] = 0;
+				}
+			}
+			for (int f = 0; f < n; f++) {
+				for (int t : trigramsOfFund[f]) {
+					postings[t][counts[t]++] = f;
+				}
+			}
+		}
+
+		List<Match> search(String query, int limit) {
+			String folded = TurkishText.fold(query);
+			boolean lastWordComplete = !query.isEmpty() && Character.isWhitespace(query.charAt(query.length() - 1));
+			int[] queryTrigrams = trigrams(folded, lastWordComplete);
+			if (queryTrigrams.length == 0) {
+				return List.of();
+			}
+
+			// Trigrams shared with the query, per fund
+			int[] shared = new int[funds.length];
+			int[] touched = new int[funds.length];
+			int touchedCount = 0;
+			for (int t : queryTrigrams) {
+				int[] list = postings[t];
+				if (list == null) {
+					continue;
+				}
+				for (int f : list) {
+					if (shared[f]++ == 0) {
+						touched[touchedCount++] = f;
+					}
+				}
+			}
+
+			String wordPrefix = " " + folded;
+			String wholeWord = wordPrefix + " ";
+			List<Match> matches = new ArrayList<>();
+			for (int k = 0; k < touchedCount; k++) {
+				int f = touched[k];
+				double coverage = (double) shared[f] / queryTrigrams.length;
+
+				double boost = 0;
+				if (foldedCodes[f].equals(folded)) {
+					boost = EXACT_CODE_BOOST;
+				} else if (foldedCodes[f].startsWith(folded)) {
+					boost = CODE_PREFIX_BOOST;
+				} else if (foldedNames[f].startsWith(wordPrefix)) {
+					boost = NAME_PREFIX_BOOST;
+				} else if (foldedNames[f].contains(wordPrefix)) {
+					boost = WORD_PREFIX_BOOST;
+				} else if (coverage < MIN_COVERAGE) {
+					continue;
+				}
+				if (boost > 0 && foldedNames[f].contains(wholeWord)) {
+					boost += WHOLE_WORD_BOOST;
+				}
+				matches.add(new Match(funds[f][0], funds[f][1], funds[f][2], coverage + boost));
+			}
+
+			matches.sort(Comparator.comparingDouble(Match::score).reversed()
+					.thenComparingInt((Match m) -> m.name().length()).thenComparing(Match::code));
+			return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+		}
+
+		/**
+		 * Distinct trigram keys of folded text, sorted. Every word is padded with
+		 * two spaces in front and, if complete, one behind.
+		 */
+		private static int[] trigrams(String folded, boolean lastWordComplete) {
+			if (folded.isEmpty()) {
+				return new int[0];
+			}
+			String[] words = folded.split(" ");
+			int[] keys = new int[folded.length() + 3 * words.length];
+			int size = 0;
+			for (int w = 0; w < words.length; w++) {
+				boolean complete = w < words.length - 1 || lastWordComplete;
+				String padded = "  " + words[w] + (complete ? " " : "");
+				for (int i = 0; i + 3 <= padded.length(); i++) {
+					keys[size++] = (code(padded.charAt(i)) * ALPHABET + code(padded.charAt(i + 1))) * ALPHABET
+							+ code(padded.charAt(i + 2));
+				}
+			}
+
+			Arrays.sort(keys, 0, size);
+			int distinct = 0;
+			for (int i = 0; i < size; i++) {
+				if (distinct == 0 || keys[i] != keys[distinct - 1]) {
+					keys[distinct++] = keys[i];
+				}
+			}
+			return Arrays.copyOf(keys, distinct);
+		}
+
+		private static int code(char c) {
+			if (c == ' ') {
+				return 0;
+			}
+			return c <= '9' ? 27 + (c - '0') : 1 + (c - 'a');
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package backend.service.dataService.search;
+
+/**
+ * Folds fund codes, names and queries to one searchable form: lower case
+ * a-z, 0-9 and single spaces. Case folding follows Turkish rules (I/ı and
+ * İ/i are pairs) and the Turkish letters then lose their marks, so "İŞ
+ * PORTFÖY", "iş portföy" and "is portfoy" all fold to "is portfoy".
+ */
+final class TurkishText {
+
+	private TurkishText() {
+	}
+
+	static String fold(String text) {
+		if (text == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(text.length());
+		boolean space = true; // drops leading and repeated spaces
+		for (int i = 0; i < text.length(); i++) {
+			char c = foldChar(text.charAt(i));
+			if (c == ' ') {
+				if (!space) {
+					sb.append(' ');
+					space = true;
+				}
+			} else {
+				sb.append(c);
+				space = false;
+			}
+		}
+		int end = sb.length();
+		if (end > 0 && sb.charAt(end - 1) == ' ') {
+			sb.setLength(end - 1);
+		}
+		return sb.toString();
+	}
+
+	// One character to a-z, 0-9 or a space
+	private static char foldChar(char c) {
+		if (c >= 'a' && c <= 'z' || c >= '0' && c <= '9') {
+			return c;
+		}
+		if (c >= 'A' && c <= 'Z') {
+			// Turkish lower case of I is ı, which folds to i as well
+			return (char) (c + ('a' - 'A'));
+		}
+		return switch (c) {
+		case 'ı', 'İ', 'î', 'Î', 'ì', 'í', 'ï' -> 'i';
+		case 'ş', 'Ş' -> 's';
+		case 'ğ', 'Ğ' -> 'g';
+		case 'ç', 'Ç' -> 'c';
+		case 'ö', 'Ö', 'ô' -> 'o';
+		case 'ü', 'Ü', 'û', 'Û' -> 'u';
+		case 'â', 'Â', 'à', 'á' -> 'a';
+		case 'é', 'è', 'ê' -> 'e';
+		default -> ' ';
+		};
+	}
+}
@@ -0,0 +1,87 @@
+package backend.service.dataService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Contribution.cents must give exactly units.multiply(price).setScale(2,
+ * HALF_UP), on the long fast path and on the BigDecimal fallback alike.
+ */
+class PortfolioValuationEngineContributionTest {
+
+	@ParameterizedTest(name = "{0} x {1} micros")
+	@CsvSource({
+			// Exact halves round up
+			"1, 5000",
+			"0.5, 10000",
+			"2.5, 1001000",
+			"0.000001, 5000000",
+			"3, 1666665",
+			// Just below a half
+			"1.5, 3000",
+			"1, 4999",
+			"0.00000001, 499999999",
+			"0, 1234567",
+			"1234.5678, 0",
+			// Largest scale on the fast path, and the first past it
+			"1.23456789, 987654321",
+			"1.234567890, 987654321",
+			"0.99999999, 999999",
+			"0.000000005, 1000000",
+			"12345.678901234567, 1234567",
+			"0.00000000000000000001, 999999999999",
+			// Unit scales the fast path cannot shift
+			"1E+5, 1234567",
+			"1.2E+9, 999",
+			// Products at and around Long.MAX_VALUE - divisor / 2
+			"9223372036854.775807, 1",
+			"922337203685477580.7, 10",
+			"922337203685.4775807, 10",
+			"188232082384791343, 49",
+			"1882320823847.91343, 49",
+			"9223372036.85477, 999999",
+			"9223372036.85477, 1000001",
+			// Unscaled units too wide for a long
+			"12345678901234567890123.45, 1",
+			"99999999999999999999, 100",
+			// Negative inputs
+			"-1.5, 3000",
+			"-2.5, 1001000",
+			"2.5, -1001000",
+	})
+	void centsMatchesBigDecimalRounding(String units, long priceMicros) {
+		BigDecimal u = new BigDecimal(units);
+		assertEquals(expected(u, priceMicros), new PortfolioValuationEngine.Contribution(u).cents(priceMicros));
+	}
+
+	@Test
+	void centsMatchesBigDecimalRoundingForRandomInputs() {
+		Random random = new Random(42);
+		for (int i = 0; i < 200_000; i++) {
+			int scale = random.nextInt(12) - 1;
+			long unscaled = random.nextInt(4) == 0 ? random.nextLong() & Long.MAX_VALUE >>> random.nextInt(63)
+					: random.nextInt(100_000_000);
+			long priceMicros = random.nextInt(4) == 0 ? random.nextLong() & Long.MAX_VALUE >>> (20 + random.nextInt(43))
+					: random.nextInt(1_000_000_000);
+			BigDecimal units = BigDecimal.valueOf(unscaled, scale);
+			BigDecimal product = units.multiply(BigDecimal.valueOf(priceMicros, 6));
+			if (product.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE, 2)) >= 0) {
+				continue;
+			}
+			assertEquals(expected(units, priceMicros), new PortfolioValuationEngine.Contribution(units).cents(priceMicros),
+					units + " x " + priceMicros);
+		}
+	}
+
+	private static long expected(BigDecimal units, long priceMicros) {
+		return units.multiply(BigDecimal.valueOf(priceMicros, 6)).setScale(2, RoundingMode.HALF_UP).unscaledValue()
+				.longValueExact();
+	}
+}
@@ -0,0 +1,86 @@
+package backend.service.dataService.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class CsvRowDecoderTest {
+
+	@ParameterizedTest(name = "{2}")
+	@CsvSource(delimiter = '|', textBlock = """
+			# delimiter | decimal | line | code | name | date | price | units | investors | total value
+			; | , | 02.01.2024;AAV;Ata Fon;1,234567;1.000.000,50;1.234;12.345.678,90 \
+			  | AAV | Ata Fon | 2024-01-02 | 1.234567 | 1000000.50 | 1234 | 12345678.90
+			, | . | 2024-01-02,AAV,"Ata, Fon",1.234567,"1,000,000.50","1,234","12,345,678.90" \
+			  | AAV | Ata, Fon | 2024-01-02 | 1.234567 | 1000000.50 | 1234 | 12345678.90
+			; | , | 02/01/2024;"AAV";"Ata ""Değişken"" Fon";"0,5";0;0;0 \
+			  | AAV | Ata "Değişken" Fon | 2024-01-02 | 0.5 | 0 | 0 | 0
+			; | , | 29-02-2024;AAV;Ata;+1,5;-2,25;3;-4 \
+			  | AAV | Ata | 2024-02-29 | 1.5 | -2.25 | 3 | -4
+			; | , | ' 02.01.2024 ; AAV ; Ata ;1,2345675;1,005; 7 ;0,004' \
+			  | AAV | Ata | 2024-01-02 | 1.234568 | 1.01 | 7 | 0
+			# Blank numbers read as zero
+			; | , | 02.01.2024;AAV;Ata;1,5; ;; \
+			  | AAV | Ata | 2024-01-02 | 1.5 | 0 | 0 | 0
+			# Fields past the seventh are ignored
+			, | . | 2024-01-02,AAV,Ata,1.5,1,2,3,extra,more \
+			  | AAV | Ata | 2024-01-02 | 1.5 | 1 | 2 | 3
+			""")
+	void decodesRow(char delimiter, char decimalPoint, String line, String code, String name, LocalDate date,
+			BigDecimal price, BigDecimal units, int investors, BigDecimal totalValue) {
+		FundPriceRow row = decode(delimiter, decimalPoint, line);
+
+		assertNotNull(row);
+		assertEquals(code, row.getFundCode());
+		assertEquals(name, row.getFundName());
+		assertEquals(date, row.getDate());
+		assertEquals(0, price.compareTo(row.getPrice()), "price " + row.getPrice());
+		assertEquals(0, units.compareTo(row.getCirculatingUnits()), "units " + row.getCirculatingUnits());
+		assertEquals(investors, row.getInvestorCount());
+		assertEquals(0, totalValue.compareTo(row.getTotalValue()), "total value " + row.getTotalValue());
+	}
+
+	@ParameterizedTest(name = "[{2}]")
+	@CsvSource(delimiter = '|', textBlock = """
+			# delimiter | decimal | line
+			; | , | Tarih;Fon Kodu;Fon Adı;Fiyat;Tedavüldeki Pay Sayısı;Kişi Sayısı;Fon Toplam Değer
+			; | , | ''
+			; | , | 02.01.2024;AAV;Ata;1,5
+			; | , | 02.01.2024;AAV;Ata;1,5;1;1
+			; | , | 02.01.2024; ;Ata;1,5;1;1;1
+			; | , | 02.01.2024;"";Ata;1,5;1;1;1
+			# Dates
+			; | , | ;AAV;Ata;1,5;1;1;1
+			; | , | 2.1.2024;AAV;Ata;1,5;1;1;1
+			; | , | 2024.01.02;AAV;Ata;1,5;1;1;1
+			; | , | 02.01-2024;AAV;Ata;1,5;1;1;1
+			; | , | 31.02.2024;AAV;Ata;1,5;1;1;1
+			; | , | 29.02.2023;AAV;Ata;1,5;1;1;1
+			; | , | 02.13.2024;AAV;Ata;1,5;1;1;1
+			; | , | 00.01.2024;AAV;Ata;1,5;1;1;1
+			; | , | 2024-01-0x;AAV;Ata;1,5;1;1;1
+			# Numbers that do not parse
+			; | , | 02.01.2024;AAV;Ata;1,2,3;1;1;1
+			; | , | 02.01.2024;AAV;Ata;abc;1;1;1
+			; | , | 02.01.2024;AAV;Ata;-;1;1;1
+			, | . | 2024-01-02,AAV,Ata,1E5,1,1,1
+			; | , | 02.01.2024;AAV;Ata;1,5;12x;1;1
+			; | , | 02.01.2024;AAV;Ata;1,5;1;99999999999;1
+			; | , | 02.01.2024;AAV;Ata;1,5;1;1;--1
+			""")
+	void skipsRow(char delimiter, char decimalPoint, String line) {
+		assertNull(decode(delimiter, decimalPoint, line));
+	}
+
+	private static FundPriceRow decode(char delimiter, char decimalPoint, String line) {
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		return new CsvRowDecoder(delimiter, decimalPoint).decode(bytes, 0, bytes.length);
+	}
+}
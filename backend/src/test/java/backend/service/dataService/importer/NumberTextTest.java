@@ -0,0 +1,53 @@
+package backend.service.dataService.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class NumberTextTest {
+
+	@ParameterizedTest(name = "[{0}] scale {1}")
+	@CsvSource(delimiter = '|', textBlock = """
+			# text                  | scale | decimal | grouping | expected
+			12.5                    | 2     | .       | ,        | 1250
+			12,5                    | 2     | ,       | .        | 1250
+			-12.5                   | 2     | .       | ,        | -1250
+			+12.5                   | 2     | .       | ,        | 1250
+			-0,25                   | 2     | ,       | .        | -25
+			' 1.000,25 '            | 2     | ,       | .        | 100025
+			1,000.25                | 2     | .       | ,        | 100025
+			1.234.567,891234        | 6     | ,       | .        | 1234567891234
+			12                      | 6     | .       | none     | 12000000
+			12.                     | 2     | .       | ,        | 1200
+			.5                      | 2     | .       | ,        | 50
+			0                       | 0     | .       | ,        | 0
+			# Digits past the scale round half up, away from zero
+			0,0000005               | 6     | ,       | .        | 1
+			0,0000004999            | 6     | ,       | .        | 0
+			-0,0000005              | 6     | ,       | .        | -1
+			1.995                   | 2     | .       | ,        | 200
+			# Largest unscaled value that fits, and one digit more
+			999999999999999999      | 0     | .       | ,        | 999999999999999999
+			9999999999999999999     | 0     | .       | ,        | INVALID
+			1234567890123           | 6     | .       | ,        | INVALID
+			# Not a plain decimal
+			''                      | 2     | .       | ,        | INVALID
+			'   '                   | 2     | .       | ,        | INVALID
+			-                       | 2     | .       | ,        | INVALID
+			+.                      | 2     | .       | ,        | INVALID
+			--1                     | 2     | .       | ,        | INVALID
+			1-                      | 2     | .       | ,        | INVALID
+			1.2.3                   | 2     | .       | ,        | INVALID
+			1,2,3                   | 2     | ,       | .        | INVALID
+			1,5                     | 2     | .       | none     | INVALID
+			1e5                     | 2     | .       | ,        | INVALID
+			12 34                   | 2     | .       | ,        | INVALID
+			abc                     | 2     | .       | ,        | INVALID
+			""")
+	void parseScaled(String text, int scale, char decimalPoint, String grouping, String expected) {
+		long unscaled = NumberText.parseScaled(text, scale, decimalPoint,
+				grouping.equals("none") ? NumberText.NONE : grouping.charAt(0));
+		assertEquals(expected.equals("INVALID") ? NumberText.INVALID : Long.parseLong(expected), unscaled);
+	}
+}